@@ -16,10 +16,18 @@ package com.lyncode.jtwig;
 
 import com.lyncode.jtwig.functions.exceptions.FunctionException;
 import com.lyncode.jtwig.functions.parameters.GivenParameters;
+import com.lyncode.jtwig.functions.parameters.convert.api.ParameterConverter;
+import com.lyncode.jtwig.functions.parameters.resolve.api.AnnotatedMethodParameterResolver;
+import com.lyncode.jtwig.functions.parameters.resolve.api.TypeMethodParameterResolver;
 import com.lyncode.jtwig.functions.parameters.resolve.exceptions.ResolveException;
 import com.lyncode.jtwig.functions.repository.FunctionResolver;
+import com.lyncode.jtwig.render.Frame;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
 
 import static com.lyncode.jtwig.types.Undefined.UNDEFINED;
 
@@ -33,20 +41,26 @@ public class JtwigContext {
 
     private FunctionResolver functionRepository;
     private JtwigModelMap modelMap;
+    private Scope scope;
+    private final Frame frame;
 
     public JtwigContext(JtwigModelMap modelMap, FunctionResolver functionRepository) {
+        this(modelMap, functionRepository, null, null);
+    }
+
+    private JtwigContext(JtwigModelMap modelMap, FunctionResolver functionRepository, Scope scope, Frame frame) {
         this.functionRepository = functionRepository;
         this.modelMap = modelMap;
+        this.scope = scope;
+        this.frame = frame;
     }
 
     public JtwigContext(JtwigModelMap modelMap) {
-        this.functionRepository = new FunctionResolver();
-        this.modelMap = modelMap;
+        this(modelMap, DefaultFunctionResolver.INSTANCE);
     }
 
     public JtwigContext() {
-        this.functionRepository = new FunctionResolver();
-        this.modelMap = new JtwigModelMap();
+        this(new JtwigModelMap());
     }
 
     public JtwigContext withModelAttribute(String key, Object value) {
@@ -56,8 +70,19 @@ public class JtwigContext {
 
     public Object map(String key) {
         if (MODEL.equals(key)) {
-            return modelMap;
+            if (frame == null || frame.isEmpty())
+                return scope == null ? modelMap : scope.flatten(modelMap);
+            JtwigModelMap result = scope == null ? new JtwigModelMap().add(modelMap) : scope.flatten(modelMap);
+            return result.add(frame.values());
         } else {
+            if (frame != null) {
+                Object value = frame.get(key);
+                if (value != Frame.UNSET) return value;
+            }
+            for (Scope current = scope; current != null; current = current.parent) {
+                if (current.values.containsKey(key))
+                    return current.values.get(key);
+            }
             if (modelMap.containsKey(key)) {
                 return modelMap.get(key);
             } else {
@@ -67,7 +92,62 @@ public class JtwigContext {
     }
 
     public void set(String key, Object value) {
-        modelMap.add(key, value);
+        if (frame != null && frame.replace(key, value)) return;
+        if (scope == null) {
+            modelMap.add(key, value);
+        } else {
+            if (scope.shared) scope = scope.copy();
+            scope.values.put(key, value);
+        }
+    }
+
+    /**
+     * Context for a concurrent render. It sees everything visible here, but from now on neither
+     * side sees the assignments of the other. The model map is left untouched by both, assignments
+     * go to small overlays instead, copied only when an overlay shared with a fork is written again.
+     */
+    public JtwigContext fork() {
+        if (scope == null) scope = new Scope(null);
+        scope.shared = true;
+        return new JtwigContext(modelMap, functionRepository, new Scope(scope), frame == null ? null : frame.copy());
+    }
+
+    /**
+     * Context for a single render, with a frame for the template variables. It writes the same
+     * model map until it is forked, overlays installed by forking stay on the render context and
+     * never on this one.
+     */
+    public JtwigContext forRender() {
+        if (scope != null) scope.shared = true;
+        return new JtwigContext(modelMap, functionRepository, scope, new Frame());
+    }
+
+    /**
+     * Assigns here what a render context kept in its overlays and frame, once all of its forks are done.
+     */
+    public void join(JtwigContext render) {
+        Deque<Scope> scopes = new ArrayDeque<>();
+        for (Scope current = render.scope; current != null && current != scope; current = current.parent)
+            scopes.push(current);
+        for (Scope current : scopes) {
+            for (Map.Entry<String, Object> entry : current.values.entrySet())
+                set(entry.getKey(), entry.getValue());
+        }
+        if (render.frame != null) {
+            for (Map.Entry<String, Object> entry : render.frame.values().entrySet())
+                set(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Values of the template variables of the render this context is for, null outside renders.
+     */
+    public Frame frame() {
+        return frame;
+    }
+
+    public FunctionResolver functionResolver() {
+        return functionRepository;
     }
 
     public Object executeFunction(String name, GivenParameters parameters) throws FunctionException {
@@ -77,4 +157,73 @@ public class JtwigContext {
             throw new FunctionException(e);
         }
     }
+
+    private static class Scope {
+        private final Scope parent;
+        private final Map<String, Object> values;
+        private boolean shared = false;
+
+        private Scope(Scope parent) {
+            this(parent, new HashMap<String, Object>());
+        }
+
+        private Scope(Scope parent, Map<String, Object> values) {
+            this.parent = parent;
+            this.values = values;
+        }
+
+        private Scope copy() {
+            return new Scope(parent, new HashMap<>(values));
+        }
+
+        private JtwigModelMap flatten(JtwigModelMap modelMap) {
+            Deque<Scope> scopes = new ArrayDeque<>();
+            for (Scope current = this; current != null; current = current.parent)
+                scopes.push(current);
+
+            JtwigModelMap result = new JtwigModelMap().add(modelMap);
+            for (Scope current : scopes)
+                result.add(current.values);
+            return result;
+        }
+    }
+
+    /**
+     * Resolver shared by every context created without one, so it is read only. A context
+     * needing more functions is given a resolver of its own.
+     */
+    private static class DefaultFunctionResolver extends FunctionResolver {
+        private static final FunctionResolver INSTANCE = new DefaultFunctionResolver();
+        private boolean sealed;
+
+        private DefaultFunctionResolver() {
+            sealed = true;
+        }
+
+        @Override
+        public FunctionResolver add(Class<?> from, Class<?> to, ParameterConverter converter) {
+            throw readOnly();
+        }
+
+        @Override
+        public FunctionResolver add(AnnotatedMethodParameterResolver resolver) {
+            throw readOnly();
+        }
+
+        @Override
+        public FunctionResolver add(TypeMethodParameterResolver resolver) {
+            throw readOnly();
+        }
+
+        @Override
+        public synchronized FunctionResolver store(Object instance) {
+            if (sealed) throw readOnly();
+            return super.store(instance);
+        }
+
+        private static UnsupportedOperationException readOnly() {
+            return new UnsupportedOperationException("The default function resolver is shared by all contexts, " +
+                    "create the context with its own FunctionResolver to change it");
+        }
+    }
 }
@@ -0,0 +1,109 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig;
+
+import com.lyncode.jtwig.configuration.JtwigConfiguration;
+import com.lyncode.jtwig.exception.CompileException;
+import com.lyncode.jtwig.exception.ParseException;
+import com.lyncode.jtwig.exception.RenderException;
+import com.lyncode.jtwig.exception.ResourceException;
+import com.lyncode.jtwig.functions.repository.FunctionResolver;
+import com.lyncode.jtwig.parser.JtwigParser;
+import com.lyncode.jtwig.resource.JtwigResource;
+import com.lyncode.jtwig.resource.JtwigResourceLoader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Long lived, thread safe entry point. Holds the parser, the function resolver, the
+ * configuration and the compiled templates, so they are built once and shared by all renders.
+ * The configuration is copied when the environment is created, later changes to the given one
+ * are not seen.
+ */
+public class JtwigEnvironment {
+    private final JtwigResourceLoader resourceLoader;
+    private final JtwigConfiguration configuration;
+    private final FunctionResolver functionResolver;
+    private final JtwigParser parser;
+    private final ConcurrentMap<String, JtwigTemplate> templates = new ConcurrentHashMap<>();
+
+    public JtwigEnvironment(JtwigResourceLoader resourceLoader) {
+        this(resourceLoader, new JtwigConfiguration());
+    }
+
+    public JtwigEnvironment(JtwigResourceLoader resourceLoader, JtwigConfiguration configuration) {
+        this(resourceLoader, configuration, new FunctionResolver());
+    }
+
+    public JtwigEnvironment(JtwigResourceLoader resourceLoader, JtwigConfiguration configuration, FunctionResolver functionResolver) {
+        this.resourceLoader = resourceLoader;
+        this.configuration = configuration.copy();
+        this.functionResolver = functionResolver;
+        this.configuration.compile().functionResolver(functionResolver);
+        this.parser = new JtwigParser(this.configuration.parse());
+    }
+
+    public JtwigTemplate getTemplate (String name) throws ResourceException {
+        JtwigTemplate template = templates.get(name);
+        if (template == null) {
+            template = new JtwigTemplate(resourceLoader.load(name), configuration, parser);
+            JtwigTemplate existing = templates.putIfAbsent(name, template);
+            if (existing != null) template = existing;
+        }
+        return template;
+    }
+
+    public void render (String name, JtwigModelMap model, OutputStream outputStream) throws ResourceException, ParseException, CompileException, RenderException {
+        getTemplate(name).output(outputStream, newContext(model));
+    }
+
+    public String render (String name, JtwigModelMap model) throws ResourceException, ParseException, CompileException, RenderException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        render(name, model, outputStream);
+        return new String(outputStream.toByteArray(), configuration.render().charset());
+    }
+
+    public JtwigContext newContext (JtwigModelMap model) {
+        return new JtwigContext(model, functionResolver);
+    }
+
+    public void invalidate (String name) {
+        templates.remove(name);
+    }
+
+    /**
+     * Evicts every template whose last compilation read the given resource, leaving the rest cached.
+     */
+    public int invalidate (JtwigResource resource) {
+        int evicted = 0;
+        for (Map.Entry<String, JtwigTemplate> entry : templates.entrySet()) {
+            if (entry.getValue().dependsOn(resource) && templates.remove(entry.getKey(), entry.getValue()))
+                evicted++;
+        }
+        return evicted;
+    }
+
+    public void clear () {
+        templates.clear();
+    }
+
+    public JtwigParser parser() { return parser; }
+    public FunctionResolver functionResolver() { return functionResolver; }
+    public JtwigConfiguration configuration() { return configuration; }
+}
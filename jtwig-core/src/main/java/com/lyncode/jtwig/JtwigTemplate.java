@@ -21,63 +21,156 @@ import com.lyncode.jtwig.content.api.Renderable;
 import com.lyncode.jtwig.exception.CompileException;
 import com.lyncode.jtwig.exception.ParseException;
 import com.lyncode.jtwig.exception.RenderException;
+import com.lyncode.jtwig.exception.ResourceException;
 import com.lyncode.jtwig.parser.JtwigParser;
 import com.lyncode.jtwig.render.RenderContext;
 import com.lyncode.jtwig.resource.FileJtwigResource;
 import com.lyncode.jtwig.resource.JtwigResource;
 import com.lyncode.jtwig.resource.StringJtwigResource;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
 
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.OutputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 
 public class JtwigTemplate {
-    private JtwigResource resource;
-    private JtwigConfiguration configuration = new JtwigConfiguration();
+    private static final Logger log = LogManager.getLogger(JtwigTemplate.class);
+
+    private final JtwigResource resource;
+    private final JtwigConfiguration configuration;
+    private final JtwigParser parser;
+    private volatile CachedTemplate cached;
 
     public JtwigTemplate(JtwigResource resource) {
-        this.resource = resource;
+        this(resource, new JtwigConfiguration());
     }
 
     public JtwigTemplate(JtwigResource resource, JtwigConfiguration configuration) {
+        this(resource, configuration, new JtwigParser(configuration.parse()));
+    }
+
+    public JtwigTemplate(JtwigResource resource, JtwigConfiguration configuration, JtwigParser parser) {
         this.resource = resource;
         this.configuration = configuration;
+        this.parser = parser;
     }
 
     public JtwigTemplate(String content) {
-        this.resource = new StringJtwigResource(content);
+        this(new StringJtwigResource(content));
     }
 
     public JtwigTemplate(File file) {
-        this.resource = new FileJtwigResource(file);
+        this(new FileJtwigResource(file));
     }
 
     public void output (OutputStream outputStream, JtwigContext context) throws ParseException, CompileException, RenderException {
-        JtwigParser parser = new JtwigParser();
-        CompileContext compileContext = new CompileContext(resource, parser, configuration.compile());
-        RenderContext renderContext = RenderContext.create(configuration.render(), context, outputStream);
-
-        parser
-                .parse(resource)
-                .compile(compileContext)
-                .render(renderContext);
+        JtwigContext renderModel = context.forRender();
+        RenderContext renderContext = RenderContext.create(configuration.render(), renderModel, outputStream);
+        try {
+            compile().render(renderContext);
+        } finally {
+            context.join(renderModel);
+        }
     }
 
     public String output(JtwigContext context) throws ParseException, CompileException, RenderException {
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
         output(outputStream, context);
-        return outputStream.toString();
+        return new String(outputStream.toByteArray(), configuration.render().charset());
     }
 
     public Renderable compile() throws ParseException, CompileException {
-        JtwigParser parser = new JtwigParser();
-        return parser.parse(resource)
-                .compile(new CompileContext(resource, parser, configuration.compile()));
+        CachedTemplate current = cached;
+        if (current == null || !current.isFresh()) {
+            synchronized (this) {
+                current = cached;
+                if (current == null || !current.isFresh()) {
+                    CompileContext context = newCompileContext(parser);
+                    Renderable renderable = context.parse(resource).compile(context);
+                    current = new CachedTemplate(renderable, context.dependencies(), context.foldedExpressions(), configuration.compile().checkInterval());
+                    if (log.isDebugEnabled())
+                        log.debug("Compiled template [" + resource + "], " + context.foldedExpressions() + " expressions folded");
+                    cached = current;
+                }
+            }
+        }
+        return current.renderable;
     }
 
-
     public Renderable compile(JtwigParser parser) throws ParseException, CompileException {
-        Compilable compilable = parser.parse(resource);
-        return compilable.compile(new CompileContext(resource, parser, configuration.compile()));
+        CompileContext context = newCompileContext(parser);
+        Compilable compilable = context.parse(resource);
+        return compilable.compile(context);
+    }
+
+    public JtwigResource resource () {
+        return resource;
+    }
+
+    /**
+     * Resources read by the last compilation (this template and everything it extends, includes or embeds).
+     */
+    public Set<JtwigResource> dependencies () {
+        CachedTemplate current = cached;
+        if (current == null) return Collections.emptySet();
+        return current.dependencies.keySet();
+    }
+
+    /**
+     * Operations evaluated at compile time by the last compilation, 0 before the first one.
+     */
+    public int foldedExpressions () {
+        CachedTemplate current = cached;
+        return current == null ? 0 : current.foldedExpressions;
+    }
+
+    public boolean dependsOn (JtwigResource resource) {
+        return dependencies().contains(resource);
+    }
+
+    public void invalidate () {
+        cached = null;
+    }
+
+    private CompileContext newCompileContext(JtwigParser parser) {
+        return new CompileContext(resource, parser, configuration.compile())
+                .withCharset(configuration.render().charset());
+    }
+
+    private static class CachedTemplate {
+        private final Renderable renderable;
+        private final Map<JtwigResource, Long> dependencies;
+        private final int foldedExpressions;
+        private final long checkInterval;
+        private volatile long checkedAt;
+
+        private CachedTemplate(Renderable renderable, Map<JtwigResource, Long> dependencies, int foldedExpressions, long checkInterval) {
+            this.renderable = renderable;
+            this.dependencies = Collections.unmodifiableMap(new LinkedHashMap<>(dependencies));
+            this.foldedExpressions = foldedExpressions;
+            this.checkInterval = checkInterval;
+            this.checkedAt = System.currentTimeMillis();
+        }
+
+        private boolean isFresh () throws CompileException {
+            if (checkInterval < 0) return true;
+            long now = System.currentTimeMillis();
+            if (checkInterval > 0 && now - checkedAt < checkInterval) return true;
+            try {
+                for (Map.Entry<JtwigResource, Long> entry : dependencies.entrySet()) {
+                    if (entry.getKey().lastModified() != entry.getValue())
+                        return false;
+                }
+                checkedAt = now;
+                return true;
+            } catch (ResourceException e) {
+                throw new CompileException(e);
+            }
+        }
     }
 }
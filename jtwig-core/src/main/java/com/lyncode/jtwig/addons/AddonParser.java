@@ -28,13 +28,18 @@ public abstract class AddonParser extends JtwigBaseParser<Addon> {
     final JtwigExpressionParser expressionParser;
     final JtwigTagPropertyParser tagPropertyParser;
 
-    public AddonParser(JtwigResource resource, ParserConfiguration configuration) {
-        super(resource);
+    public AddonParser(ParserConfiguration configuration) {
         basicParser = Parboiled.createParser(JtwigBasicParser.class, configuration);
-        expressionParser = Parboiled.createParser(JtwigExpressionParser.class, resource, configuration);
+        expressionParser = Parboiled.createParser(JtwigExpressionParser.class, configuration);
         tagPropertyParser = Parboiled.createParser(JtwigTagPropertyParser.class, configuration);
     }
 
+    @Override
+    public void setResource(JtwigResource resource) {
+        super.setResource(resource);
+        expressionParser.setResource(resource);
+    }
+
     public JtwigBasicParser basicParser() {
         return basicParser;
     }
@@ -18,12 +18,11 @@ package com.lyncode.jtwig.addons.concurrent;
 import com.lyncode.jtwig.addons.Addon;
 import com.lyncode.jtwig.addons.AddonParser;
 import com.lyncode.jtwig.parser.config.ParserConfiguration;
-import com.lyncode.jtwig.resource.JtwigResource;
 
 public class ConcurrentParser extends AddonParser {
 
-    public ConcurrentParser(JtwigResource resource, ParserConfiguration configuration) {
-        super(resource, configuration);
+    public ConcurrentParser(ParserConfiguration configuration) {
+        super(configuration);
     }
 
     @Override
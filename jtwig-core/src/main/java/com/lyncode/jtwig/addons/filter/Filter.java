@@ -27,8 +27,6 @@ import com.lyncode.jtwig.expressions.model.FunctionElement;
 import com.lyncode.jtwig.expressions.model.OperationBinary;
 import com.lyncode.jtwig.expressions.model.Variable;
 import com.lyncode.jtwig.render.RenderContext;
-import org.apache.commons.lang3.tuple.ImmutablePair;
-import org.apache.commons.lang3.tuple.Pair;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -47,7 +45,7 @@ public class Filter extends Addon {
 
     private static class Compiled implements Renderable {
         private final Renderable content;
-        private Expression expression;
+        private final Expression expression;
 
         private Compiled(Renderable content, Expression expression) {
             this.content = content;
@@ -59,20 +57,11 @@ public class Filter extends Addon {
             ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
             content.render(context.newRenderContext(outputStream));
 
-            FunctionElement.Compiled compiledFunction;
-            if (expression instanceof OperationBinary.Compiled) {
-                Pair<Expression, OperationBinary.Compiled> leftMostOperand = getLeftMostOperand((OperationBinary.Compiled) expression);
-                compiledFunction = toFunction(leftMostOperand.getLeft());
-                leftMostOperand.getRight().left(compiledFunction);
-            } else {
-                compiledFunction = toFunction(expression);
-                expression = compiledFunction;
-            }
-
-            compiledFunction.addFirstArgument(new Constant.Compiled(outputStream.toString()));
+            Expression input = new Constant.Compiled(new String(outputStream.toByteArray(), context.configuration().charset()));
+            Expression expression = withFirstArgument(this.expression, input);
 
             try {
-                context.write(String.valueOf(expression.calculate(context)).getBytes());
+                context.write(String.valueOf(expression.calculate(context)));
             } catch (IOException | CalculateException e) {
                 throw new RenderException(e);
             }
@@ -85,11 +74,12 @@ public class Filter extends Addon {
                 return (FunctionElement.Compiled) expression;
         }
 
-        private Pair<Expression, OperationBinary.Compiled> getLeftMostOperand(OperationBinary.Compiled binary) {
-            Expression left = binary.left();
-            if (left instanceof OperationBinary.Compiled)
-                return getLeftMostOperand((OperationBinary.Compiled) left);
-            return new ImmutablePair<>(left, binary);
+        private Expression withFirstArgument(Expression expression, Expression argument) {
+            if (expression instanceof OperationBinary.Compiled) {
+                OperationBinary.Compiled binary = (OperationBinary.Compiled) expression;
+                return binary.withLeft(withFirstArgument(binary.left(), argument));
+            }
+            return toFunction(expression).withFirstArgument(argument);
         }
     }
 }
@@ -19,12 +19,11 @@ import com.lyncode.jtwig.addons.AddonParser;
 import com.lyncode.jtwig.exception.ParseException;
 import com.lyncode.jtwig.expressions.model.Operator;
 import com.lyncode.jtwig.parser.config.ParserConfiguration;
-import com.lyncode.jtwig.resource.JtwigResource;
 import org.parboiled.Rule;
 
 public class FilterParser extends AddonParser {
-    public FilterParser(JtwigResource resource, ParserConfiguration configuration) {
-        super(resource, configuration);
+    public FilterParser(ParserConfiguration configuration) {
+        super(configuration);
     }
 
     @Override
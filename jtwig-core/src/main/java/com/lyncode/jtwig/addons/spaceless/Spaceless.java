@@ -47,9 +47,9 @@ public class Spaceless extends Addon {
         public void render(RenderContext context) throws RenderException {
             ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
             content.render(context.newRenderContext(outputStream));
-            String result = removeSpaces(outputStream.toString());
+            String result = removeSpaces(new String(outputStream.toByteArray(), context.configuration().charset()));
             try {
-                context.write(result.getBytes());
+                context.write(result);
             } catch (IOException e) {
                 throw new RenderException(e);
             }
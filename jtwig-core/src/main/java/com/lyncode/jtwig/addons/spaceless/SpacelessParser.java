@@ -17,11 +17,10 @@ package com.lyncode.jtwig.addons.spaceless;
 import com.lyncode.jtwig.addons.Addon;
 import com.lyncode.jtwig.addons.AddonParser;
 import com.lyncode.jtwig.parser.config.ParserConfiguration;
-import com.lyncode.jtwig.resource.JtwigResource;
 
 public class SpacelessParser extends AddonParser {
-    public SpacelessParser(JtwigResource resource, ParserConfiguration configuration) {
-        super(resource, configuration);
+    public SpacelessParser(ParserConfiguration configuration) {
+        super(configuration);
     }
 
     @Override
@@ -19,33 +19,63 @@ import com.lyncode.jtwig.content.api.Compilable;
 import com.lyncode.jtwig.content.api.Renderable;
 import com.lyncode.jtwig.content.model.compilable.Sequence;
 import com.lyncode.jtwig.content.model.renderable.Replacement;
+import com.lyncode.jtwig.exception.CompileException;
 import com.lyncode.jtwig.exception.ParseException;
 import com.lyncode.jtwig.exception.ResourceException;
 import com.lyncode.jtwig.parser.JtwigParser;
 import com.lyncode.jtwig.resource.JtwigResource;
 
+import java.nio.charset.Charset;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class CompileContext {
     private JtwigResource resource;
     private final JtwigParser parser;
     private final CompileConfiguration configuration;
     private Sequence parent;
-    private Map<String, Renderable> replacements = new HashMap<>();
+    private int index = -1;
+    private Map<String, DeferredReplacement> replacements = new HashMap<>();
+    private final Map<JtwigResource, Long> dependencies;
+    private final AtomicInteger foldedExpressions;
+    private final VariableSlots slots;
+    private Charset charset = Charset.defaultCharset();
 
     public CompileContext(JtwigResource resource, JtwigParser parser, CompileConfiguration configuration) {
+        this(resource, parser, configuration, new LinkedHashMap<JtwigResource, Long>(), new AtomicInteger(), new VariableSlots());
+    }
+
+    private CompileContext(JtwigResource resource, JtwigParser parser, CompileConfiguration configuration, Map<JtwigResource, Long> dependencies, AtomicInteger foldedExpressions, VariableSlots slots) {
         this.resource = resource;
         this.parser = parser;
         this.configuration = configuration;
         this.parent = null;
+        this.dependencies = dependencies;
+        this.foldedExpressions = foldedExpressions;
+        this.slots = slots;
     }
 
     public CompileContext withParent(Sequence element) {
         this.parent = element;
+        this.index = -1;
+        return this;
+    }
+
+    /**
+     * Position, in the parent sequence, of the element being compiled.
+     */
+    public CompileContext withIndex(int index) {
+        this.index = index;
         return this;
     }
 
+    public int index () {
+        return index;
+    }
+
     public boolean hasParent () {
         return parent != null;
     }
@@ -54,18 +84,30 @@ public class CompileContext {
         return parent;
     }
 
-    public CompileContext withReplacement(String name, Renderable replacement) {
+    public CompileContext withReplacement(String name, Renderable replacement) throws CompileException {
         if (replacements.containsKey(name)) {
             // already contains, nested replacement
-            replacements.put(name, new Replacement(replacements.get(name), replacement));
+            replacements.put(name, new DeferredReplacement(new Replacement(replacements.get(name).get(), replacement)));
         } else {
-            replacements.put(name, replacement);
+            replacements.put(name, new DeferredReplacement(replacement));
         }
         return this;
     }
 
-    public CompileContext withReplacement(Map<String, Renderable> replacements) {
-        this.replacements.putAll(replacements);
+    public CompileContext withReplacement(Map<String, Renderable> replacements) throws CompileException {
+        for (Map.Entry<String, Renderable> entry : replacements.entrySet())
+            withReplacement(entry.getKey(), entry.getValue());
+        return this;
+    }
+
+    /**
+     * Registers content to replace the named block, compiled (with a snapshot of this context) only
+     * once a block with that name asks for it. A replacement registered before (by a template
+     * further down the extends chain) takes precedence, in which case this one is never compiled.
+     */
+    public CompileContext withDeferredReplacement(String name, Compilable replacement) {
+        if (!replacements.containsKey(name))
+            replacements.put(name, new DeferredReplacement(replacement, clone()));
         return this;
     }
 
@@ -73,8 +115,9 @@ public class CompileContext {
         return replacements.containsKey(name);
     }
 
-    public Renderable replacement(String name) {
-        return replacements.get(name);
+    public Renderable replacement(String name) throws CompileException {
+        DeferredReplacement replacement = replacements.get(name);
+        return replacement == null ? null : replacement.get();
     }
 
     public JtwigResource retrieve(String relativePath) throws ResourceException {
@@ -82,14 +125,64 @@ public class CompileContext {
     }
 
     public Compilable parse (JtwigResource resource) throws ParseException {
+        try {
+            dependencies.put(resource, resource.lastModified());
+        } catch (ResourceException e) {
+            throw new ParseException(e);
+        }
         return parser.parse(resource);
     }
 
+    /**
+     * Resources read so far by this compilation (shared with all clones), together with
+     * their freshness stamp at the time they were read.
+     */
+    public Map<JtwigResource, Long> dependencies () {
+        return Collections.unmodifiableMap(dependencies);
+    }
+
+    /**
+     * Slots of the variables assigned by this compilation (shared with all clones).
+     */
+    public VariableSlots slots () {
+        return slots;
+    }
+
+    public CompileConfiguration configuration () {
+        return configuration;
+    }
+
+    /**
+     * Charset static content is encoded with, the one of the render configuration.
+     */
+    public Charset charset () {
+        return charset;
+    }
+
+    public CompileContext withCharset(Charset charset) {
+        this.charset = charset;
+        return this;
+    }
+
+    /**
+     * Number of operations evaluated at compile time by this compilation (shared with all clones).
+     */
+    public int foldedExpressions () {
+        return foldedExpressions.get();
+    }
+
+    public CompileContext expressionFolded () {
+        foldedExpressions.incrementAndGet();
+        return this;
+    }
+
     public CompileContext clone() {
-        CompileContext compileContext = new CompileContext(resource, parser, configuration);
+        CompileContext compileContext = new CompileContext(resource, parser, configuration, dependencies, foldedExpressions, slots);
         compileContext
+                .withCharset(charset)
                 .withParent(parent)
-                .withReplacement(replacements);
+                .withIndex(index);
+        compileContext.replacements.putAll(replacements);
         return compileContext;
     }
 
@@ -97,4 +190,27 @@ public class CompileContext {
         this.resource = retrieve;
         return this;
     }
+
+    private static class DeferredReplacement {
+        private final Compilable content;
+        private final CompileContext context;
+        private Renderable compiled;
+
+        private DeferredReplacement(Renderable compiled) {
+            this.content = null;
+            this.context = null;
+            this.compiled = compiled;
+        }
+
+        private DeferredReplacement(Compilable content, CompileContext context) {
+            this.content = content;
+            this.context = context;
+        }
+
+        private Renderable get() throws CompileException {
+            if (compiled == null)
+                compiled = content.compile(context);
+            return compiled;
+        }
+    }
 }
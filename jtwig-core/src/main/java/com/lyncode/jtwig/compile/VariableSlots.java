@@ -0,0 +1,46 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.compile;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Indexes of the variables assigned by a template (set, loop variables), shared by
+ * everything compiled with it, so reads can go to the render frame instead of the model map.
+ */
+public class VariableSlots {
+    private static final String MODEL = "model";
+    private final Map<String, Integer> slots = new HashMap<>();
+
+    public int assign(String name) {
+        if (MODEL.equals(name)) return -1;
+        Integer slot = slots.get(name);
+        if (slot == null) {
+            slot = slots.size();
+            slots.put(name, slot);
+        }
+        return slot;
+    }
+
+    public int find(String name) {
+        Integer slot = slots.get(name);
+        return slot == null ? -1 : slot;
+    }
+
+    public int size() {
+        return slots.size();
+    }
+}
@@ -14,5 +14,41 @@
 
 package com.lyncode.jtwig.compile.config;
 
+import com.lyncode.jtwig.functions.repository.FunctionResolver;
+
 public class CompileConfiguration {
+    private FunctionResolver functionResolver = null;
+    private long checkInterval = 0;
+
+    public FunctionResolver functionResolver() {
+        return functionResolver;
+    }
+
+    /**
+     * Resolver used to evaluate pure functions with constant arguments while compiling. It
+     * should be the one used when rendering, otherwise calls are left to be resolved at render time.
+     */
+    public CompileConfiguration functionResolver(FunctionResolver value) {
+        this.functionResolver = value;
+        return this;
+    }
+
+    public long checkInterval() {
+        return checkInterval;
+    }
+
+    /**
+     * Milliseconds a compiled template is reused before its sources are checked for changes
+     * again. With 0 (default) they are checked on every use, a negative value never checks them.
+     */
+    public CompileConfiguration checkInterval(long millis) {
+        this.checkInterval = millis;
+        return this;
+    }
+
+    public CompileConfiguration copy() {
+        return new CompileConfiguration()
+                .functionResolver(functionResolver)
+                .checkInterval(checkInterval);
+    }
 }
@@ -26,4 +26,12 @@ public class JtwigConfiguration {
     public RenderConfiguration render() { return renderConfiguration; }
     public CompileConfiguration compile () { return compileConfiguration; }
     public ParserConfiguration parse() { return parserConfiguration; }
+
+    public JtwigConfiguration copy() {
+        JtwigConfiguration copy = new JtwigConfiguration();
+        copy.parserConfiguration = parserConfiguration.copy();
+        copy.compileConfiguration = compileConfiguration.copy();
+        copy.renderConfiguration = renderConfiguration.copy();
+        return copy;
+    }
 }
@@ -18,7 +18,9 @@ import com.lyncode.jtwig.content.api.Compilable;
 import com.lyncode.jtwig.content.api.Tag;
 import com.lyncode.jtwig.content.model.tag.TagInformation;
 
-public abstract class AbstractElement implements Compilable, Tag {
+import java.io.Serializable;
+
+public abstract class AbstractElement implements Compilable, Tag, Serializable {
     private TagInformation tagInformation = new TagInformation();
 
     @Override
@@ -16,7 +16,6 @@ package com.lyncode.jtwig.content.model.compilable;
 
 import com.lyncode.jtwig.compile.CompileContext;
 import com.lyncode.jtwig.content.api.Renderable;
-import com.lyncode.jtwig.content.model.renderable.Replacement;
 import com.lyncode.jtwig.exception.CompileException;
 
 public class Block extends Content<Block> {
@@ -32,9 +31,8 @@ public class Block extends Content<Block> {
 
     @Override
     public Renderable compile(CompileContext context) throws CompileException {
-        Renderable render = super.compile(context);
         if (context.hasReplacement(name()))
-            return new Replacement(context.replacement(name()), render);
-        return render;
+            return context.replacement(name());
+        return super.compile(context);
     }
 }
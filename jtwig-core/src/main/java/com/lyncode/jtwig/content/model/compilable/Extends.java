@@ -40,7 +40,7 @@ public class Extends extends AbstractElement {
             context = context.clone().withResource(extendResource);
 
             for (Block block : blocks)
-                context.withReplacement(block.name(), block.compile(context));
+                context.withDeferredReplacement(block.name(), block);
 
             Compilable parsed = context.parse(extendResource);
             return parsed.compile(context);
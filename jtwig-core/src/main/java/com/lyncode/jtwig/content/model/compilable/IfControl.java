@@ -23,6 +23,7 @@ import com.lyncode.jtwig.exception.CompileException;
 import com.lyncode.jtwig.exception.RenderException;
 import com.lyncode.jtwig.expressions.api.CompilableExpression;
 import com.lyncode.jtwig.expressions.api.Expression;
+import com.lyncode.jtwig.expressions.model.Constant;
 import com.lyncode.jtwig.render.RenderContext;
 
 import java.util.ArrayList;
@@ -73,12 +74,30 @@ public class IfControl extends AbstractElement {
     public Renderable compile(final CompileContext context) throws CompileException {
         List<CompiledCase> cases = new ArrayList<>();
 
-        for (Case aCase : this.cases)
-            cases.add(new CompiledCase(aCase.expression.compile(context), aCase.compile(context)));
+        for (Case aCase : this.cases) {
+            Expression condition = aCase.expression.compile(context);
+            if (condition instanceof Constant.Compiled) {
+                // Known at compile time, unreachable cases are dropped
+                if (!isTrue(calculate(condition))) continue;
+                if (cases.isEmpty()) return aCase.compile(context);
+                cases.add(new CompiledCase(condition, aCase.compile(context)));
+                break;
+            }
+            cases.add(new CompiledCase(condition, aCase.compile(context)));
+        }
 
+        if (cases.isEmpty()) return Renderable.NOOP;
         return new Compiled(cases);
     }
 
+    private static Object calculate (Expression constant) throws CompileException {
+        try {
+            return constant.calculate(null);
+        } catch (CalculateException e) {
+            throw new CompileException(e);
+        }
+    }
+
     public static class Case extends Content<Case> {
         private CompilableExpression expression;
 
@@ -22,9 +22,13 @@ import com.lyncode.jtwig.exception.RenderException;
 import com.lyncode.jtwig.expressions.api.CompilableExpression;
 import com.lyncode.jtwig.expressions.api.Expression;
 import com.lyncode.jtwig.functions.util.ObjectIterator;
+import com.lyncode.jtwig.render.Frame;
 import com.lyncode.jtwig.render.RenderContext;
+import com.lyncode.jtwig.util.Range;
 
 public class LoopControl extends Content<LoopControl> {
+    static final String LOOP = "loop";
+
     private final String variable;
     private final CompilableExpression collection;
 
@@ -35,32 +39,61 @@ public class LoopControl extends Content<LoopControl> {
 
     @Override
     public Renderable compile(CompileContext context) throws CompileException {
-        return new Compiled(super.compile(context), collection.compile(context), variable);
+        Expression compiledCollection = collection.compile(context);
+        int loopSlot = assign(context, LOOP);
+        int variableSlot = assign(context, variable);
+        return new Compiled(super.compile(context), compiledCollection, variable, loopSlot, variableSlot);
+    }
+
+    static int assign(CompileContext context, String name) {
+        return context == null || context.slots() == null ? -1 : context.slots().assign(name);
+    }
+
+    /**
+     * Loop state for the given iteration. Within a frame the previous one is updated, as forks
+     * copy the frame with its loop state; otherwise forks share the value, so each iteration
+     * gets its own.
+     */
+    static Loop next(RenderContext context, int loopSlot, Loop previous, int length, int index) {
+        if (previous == null || loopSlot < 0 || context.frame() == null)
+            return new Loop(length, index);
+        previous.update(index);
+        return previous;
     }
 
     static class Compiled implements Renderable {
         private final String variable;
         private final Expression collection;
         private final Renderable content;
+        private final int loopSlot;
+        private final int variableSlot;
 
-        public Compiled(Renderable content, Expression collection, String variable) {
+        public Compiled(Renderable content, Expression collection, String variable, int loopSlot, int variableSlot) {
             this.variable = variable;
             this.collection = collection;
             this.content = content;
+            this.loopSlot = loopSlot;
+            this.variableSlot = variableSlot;
         }
 
         @Override
         public void render(RenderContext context) throws RenderException {
             ObjectIterator iterator = null;
             try {
-                iterator = new ObjectIterator(collection.calculate(context));
-                Loop loop = new Loop(iterator.size());
-                context.model().set("loop", loop);
+                Object value = collection.calculate(context);
+                if (value instanceof Range) {
+                    render(context, (Range) value);
+                    return;
+                }
+                iterator = new ObjectIterator(value);
+                int size = iterator.size();
                 int index = 0;
+                Loop loop = null;
                 while (iterator.hasNext()) {
-                    loop.update(index++);
+                    loop = next(context, loopSlot, loop, size, index++);
+                    Frame.assign(context, loopSlot, LOOP, loop);
                     Object object = iterator.next();
-                    context.model().set(variable, object);
+                    Frame.assign(context, variableSlot, variable, object);
                     content.render(context);
                 }
             } catch (CalculateException e) {
@@ -68,6 +101,19 @@ public class LoopControl extends Content<LoopControl> {
             }
         }
 
+        private void render(RenderContext context, Range range) throws RenderException {
+            int size = range.size();
+            int step = range.step();
+            int value = range.first();
+            Loop loop = null;
+            for (int index = 0; index < size; index++, value += step) {
+                loop = next(context, loopSlot, loop, size, index);
+                Frame.assign(context, loopSlot, LOOP, loop);
+                Frame.assign(context, variableSlot, variable, range.element(value));
+                content.render(context);
+            }
+        }
+
         protected Expression expression() {
             return collection;
         }
@@ -76,6 +122,14 @@ public class LoopControl extends Content<LoopControl> {
             return variable;
         }
 
+        protected int loopSlot() {
+            return loopSlot;
+        }
+
+        protected int variableSlot() {
+            return variableSlot;
+        }
+
         protected Renderable content() {
             return content;
         }
@@ -89,6 +143,15 @@ public class LoopControl extends Content<LoopControl> {
             this.length = length;
         }
 
+        public Loop(int length, int index) {
+            this.length = length;
+            this.index = index;
+        }
+
+        public Loop copy() {
+            return new Loop(length, index);
+        }
+
         public void update(int index) {
             this.index = index;
         }
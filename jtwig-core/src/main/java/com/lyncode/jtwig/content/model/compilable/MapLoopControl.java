@@ -21,6 +21,7 @@ import com.lyncode.jtwig.exception.CompileException;
 import com.lyncode.jtwig.exception.RenderException;
 import com.lyncode.jtwig.expressions.api.CompilableExpression;
 import com.lyncode.jtwig.expressions.api.Expression;
+import com.lyncode.jtwig.render.Frame;
 import com.lyncode.jtwig.render.RenderContext;
 
 import java.util.Map;
@@ -38,15 +39,21 @@ public class MapLoopControl extends Content {
 
     @Override
     public Renderable compile(CompileContext context) throws CompileException {
-        return new Compiled(super.compile(context), collection.compile(context), key, value);
+        Expression compiledCollection = collection.compile(context);
+        int loopSlot = LoopControl.assign(context, LoopControl.LOOP);
+        int keySlot = LoopControl.assign(context, key);
+        int valueSlot = LoopControl.assign(context, value);
+        return new Compiled(super.compile(context), compiledCollection, key, value, loopSlot, keySlot, valueSlot);
     }
 
     public class Compiled extends LoopControl.Compiled {
         private final String value;
+        private final int valueSlot;
 
-        public Compiled(Renderable content, Expression collection, String key, String value) {
-            super(content, collection, key);
+        public Compiled(Renderable content, Expression collection, String key, String value, int loopSlot, int keySlot, int valueSlot) {
+            super(content, collection, key, loopSlot, keySlot);
             this.value = value;
+            this.valueSlot = valueSlot;
         }
 
         @Override
@@ -59,14 +66,15 @@ public class MapLoopControl extends Content {
                 }
 
                 Map map = (Map) resolved;
-                LoopControl.Loop loop = new LoopControl.Loop(map.size());
-                context.model().set("loop", loop);
+                int size = map.size();
                 int index = 0;
+                LoopControl.Loop loop = null;
                 for (Object key : map.keySet()) {
-                    loop.update(index++);
+                    loop = LoopControl.next(context, loopSlot(), loop, size, index++);
+                    Frame.assign(context, loopSlot(), LoopControl.LOOP, loop);
 
-                    context.model().set(variable(), key);
-                    context.model().set(value, map.get(key));
+                    Frame.assign(context, variableSlot(), variable(), key);
+                    Frame.assign(context, valueSlot, value, map.get(key));
 
                     content().render(context);
                 }
@@ -16,11 +16,13 @@ package com.lyncode.jtwig.content.model.compilable;
 
 import com.lyncode.jtwig.compile.CompileContext;
 import com.lyncode.jtwig.content.api.Renderable;
+import com.lyncode.jtwig.content.model.renderable.StaticContent;
 import com.lyncode.jtwig.exception.CalculateException;
 import com.lyncode.jtwig.exception.CompileException;
 import com.lyncode.jtwig.exception.RenderException;
 import com.lyncode.jtwig.expressions.api.CompilableExpression;
 import com.lyncode.jtwig.expressions.api.Expression;
+import com.lyncode.jtwig.expressions.model.Constant;
 import com.lyncode.jtwig.render.RenderContext;
 
 import java.io.IOException;
@@ -34,7 +36,15 @@ public class Output extends AbstractElement {
 
     @Override
     public Renderable compile(CompileContext context) throws CompileException {
-        return new Compiled(expression.compile(context));
+        Expression compiled = expression.compile(context);
+        if (compiled instanceof Constant.Compiled) {
+            try {
+                return new StaticContent(String.valueOf(compiled.calculate(null)).getBytes(context.charset()));
+            } catch (CalculateException e) {
+                throw new CompileException(e);
+            }
+        }
+        return new Compiled(compiled);
     }
 
     private static class Compiled implements Renderable {
@@ -47,7 +57,7 @@ public class Output extends AbstractElement {
         @Override
         public void render(RenderContext context) throws RenderException {
             try {
-                context.write(String.valueOf(expression.calculate(context)).getBytes());
+                context.write(String.valueOf(expression.calculate(context)));
             } catch (IOException | CalculateException e) {
                 throw new RenderException(e);
             }
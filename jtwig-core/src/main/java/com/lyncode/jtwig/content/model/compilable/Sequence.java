@@ -17,6 +17,7 @@ package com.lyncode.jtwig.content.model.compilable;
 import com.lyncode.jtwig.compile.CompileContext;
 import com.lyncode.jtwig.content.api.Compilable;
 import com.lyncode.jtwig.content.api.Renderable;
+import com.lyncode.jtwig.content.model.renderable.StaticContent;
 import com.lyncode.jtwig.exception.CompileException;
 import com.lyncode.jtwig.exception.RenderException;
 import com.lyncode.jtwig.render.RenderContext;
@@ -32,32 +33,66 @@ public class Sequence extends AbstractElement {
     @Override
     public Renderable compile(CompileContext context) throws CompileException {
         List<Renderable> result = new ArrayList<>();
+        List<StaticContent> staticRun = new ArrayList<>();
         context = context.clone().withParent(this);
-        for (Compilable content : contents) {
-            Renderable renderable = content.compile(context);
-            if (renderable != Renderable.NOOP) // Optimization for comments
+        for (int i = 0; i < contents.size(); i++) {
+            Renderable renderable = contents.get(i).compile(context.withIndex(i));
+            if (renderable == Renderable.NOOP) continue; // Optimization for comments
+            if (renderable instanceof StaticContent) {
+                staticRun.add((StaticContent) renderable);
+            } else {
+                flush(staticRun, result);
                 result.add(renderable);
+            }
         }
+        flush(staticRun, result);
+
+        if (result.isEmpty()) return Renderable.NOOP;
+        if (result.size() == 1) return result.get(0);
         return new Compiled(result);
     }
 
+    /**
+     * Adjacent static contents are merged into a single one.
+     */
+    private static void flush(List<StaticContent> staticRun, List<Renderable> result) {
+        if (staticRun.size() == 1) result.add(staticRun.get(0));
+        else if (!staticRun.isEmpty()) result.add(StaticContent.concat(staticRun));
+        staticRun.clear();
+    }
+
     public Sequence add (Compilable compilable) {
         this.contents.add(compilable);
         return this;
     }
 
     public Compilable previous(Compilable current) {
-        int indexOf = contents.indexOf(current);
-        if (indexOf > 0) return contents.get(indexOf - 1);
-        else return null;
+        return previous(contents.indexOf(current));
     }
 
     public Compilable next(Compilable current) {
-        int indexOf = contents.indexOf(current);
-        if (indexOf < contents.size() - 1) return contents.get(indexOf + 1);
+        return next(contents.indexOf(current));
+    }
+
+    public Compilable previous(int index) {
+        if (index > 0) return contents.get(index - 1);
+        else return null;
+    }
+
+    public Compilable next(int index) {
+        if (index >= 0 && index < contents.size() - 1) return contents.get(index + 1);
         else return null;
     }
 
+    /**
+     * Index of the given element, checking the expected index first (no search when it matches).
+     */
+    public int indexOf(Compilable current, int expectedIndex) {
+        if (expectedIndex >= 0 && expectedIndex < contents.size() && contents.get(expectedIndex) == current)
+            return expectedIndex;
+        return contents.indexOf(current);
+    }
+
     public Sequence withParent(Compilable parent) {
         this.parent = parent;
         return this;
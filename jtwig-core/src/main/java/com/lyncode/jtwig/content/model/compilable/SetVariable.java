@@ -21,6 +21,7 @@ import com.lyncode.jtwig.exception.CompileException;
 import com.lyncode.jtwig.exception.RenderException;
 import com.lyncode.jtwig.expressions.api.CompilableExpression;
 import com.lyncode.jtwig.expressions.api.Expression;
+import com.lyncode.jtwig.render.Frame;
 import com.lyncode.jtwig.render.RenderContext;
 
 public class SetVariable extends AbstractElement {
@@ -34,22 +35,26 @@ public class SetVariable extends AbstractElement {
 
     @Override
     public Renderable compile(CompileContext context) throws CompileException {
-        return new Compiled(variable, assignment.compile(context));
+        Expression expression = assignment.compile(context);
+        int slot = context == null || context.slots() == null ? -1 : context.slots().assign(variable);
+        return new Compiled(variable, slot, expression);
     }
 
     private static class Compiled implements Renderable {
         private final String variable;
+        private final int slot;
         private final Expression assignment;
 
-        private Compiled(String variable, Expression assignment) {
+        private Compiled(String variable, int slot, Expression assignment) {
             this.variable = variable;
+            this.slot = slot;
             this.assignment = assignment;
         }
 
         @Override
         public void render(RenderContext context) throws RenderException {
             try {
-                context.model().set(variable, assignment.calculate(context));
+                Frame.assign(context, slot, variable, assignment.calculate(context));
             } catch (CalculateException e) {
                 throw new RenderException(e);
             }
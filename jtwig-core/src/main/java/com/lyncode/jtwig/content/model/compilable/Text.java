@@ -18,13 +18,12 @@ import com.lyncode.jtwig.compile.CompileContext;
 import com.lyncode.jtwig.content.api.Compilable;
 import com.lyncode.jtwig.content.api.Renderable;
 import com.lyncode.jtwig.content.api.Tag;
+import com.lyncode.jtwig.content.model.renderable.StaticContent;
 import com.lyncode.jtwig.exception.CompileException;
-import com.lyncode.jtwig.exception.RenderException;
-import com.lyncode.jtwig.render.RenderContext;
 
-import java.io.IOException;
+import java.io.Serializable;
 
-public class Text implements Compilable {
+public class Text implements Compilable, Serializable {
     private final String text;
 
     public Text(String text) {
@@ -35,17 +34,28 @@ public class Text implements Compilable {
     public Renderable compile(CompileContext context) throws CompileException {
         String result = text;
         if (context.hasParent()) {
-            Compilable before = context.parent().previous(this);
-            Compilable after = context.parent().next(this);
+            Sequence parent = context.parent();
+            int index = parent.indexOf(this, context.index());
 
-            if (mustTrimAtRightOf(before, context)) {
-                result = result.replaceAll("^\\s+", "");
+            int start = 0;
+            int end = text.length();
+            if (mustTrimAtRightOf(parent.previous(index), context)) {
+                while (start < end && isWhitespace(text.charAt(start))) start++;
             }
-            if (mustTrimAtLeftOf(after, context)) {
-                result = result.replaceAll("\\s+$", "");
+            if (mustTrimAtLeftOf(parent.next(index), context)) {
+                while (end > start && isWhitespace(text.charAt(end - 1))) end--;
             }
+            result = text.substring(start, end);
         }
-        return new Compiled(result);
+        if (result.isEmpty()) return Renderable.NOOP;
+        return new StaticContent(result.getBytes(context.charset()));
+    }
+
+    /**
+     * Same characters as the {@code \s} regular expression class.
+     */
+    private static boolean isWhitespace(char value) {
+        return value == ' ' || value == '\t' || value == '\n' || value == '\u000B' || value == '\f' || value == '\r';
     }
 
     private boolean mustTrimAtLeftOf(Compilable element, CompileContext context) {
@@ -70,23 +80,6 @@ public class Text implements Compilable {
         }
     }
 
-    private static class Compiled implements Renderable {
-        private final String value;
-
-        public Compiled(String value) {
-            this.value = value;
-        }
-
-        @Override
-        public void render(RenderContext context) throws RenderException {
-            try {
-                context.write(value.getBytes());
-            } catch (IOException e) {
-                throw new RenderException(e);
-            }
-        }
-    }
-
     public static class Builder implements Compilable {
         private final StringBuilder builder = new StringBuilder();
 
@@ -0,0 +1,56 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.content.model.renderable;
+
+import com.lyncode.jtwig.content.api.Renderable;
+import com.lyncode.jtwig.exception.RenderException;
+import com.lyncode.jtwig.render.RenderContext;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Already encoded output, known at compile time (text, constant outputs and anything built only from them).
+ */
+public class StaticContent implements Renderable {
+    public static StaticContent concat (List<StaticContent> contents) {
+        int length = 0;
+        for (StaticContent content : contents)
+            length += content.value.length;
+
+        byte[] value = new byte[length];
+        int offset = 0;
+        for (StaticContent content : contents) {
+            System.arraycopy(content.value, 0, value, offset, content.value.length);
+            offset += content.value.length;
+        }
+        return new StaticContent(value);
+    }
+
+    private final byte[] value;
+
+    public StaticContent(byte[] value) {
+        this.value = value;
+    }
+
+    @Override
+    public void render(RenderContext context) throws RenderException {
+        try {
+            context.write(value);
+        } catch (IOException e) {
+            throw new RenderException(e);
+        }
+    }
+}
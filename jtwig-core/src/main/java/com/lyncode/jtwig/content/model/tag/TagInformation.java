@@ -14,7 +14,9 @@
 
 package com.lyncode.jtwig.content.model.tag;
 
-public class TagInformation {
+import java.io.Serializable;
+
+public class TagInformation implements Serializable {
     private WhiteSpaceControl whiteSpaceControl = new WhiteSpaceControl();
 
     public WhiteSpaceControl whiteSpaceControl() {
@@ -16,7 +16,9 @@ package com.lyncode.jtwig.content.model.tag;
 
 import org.apache.commons.lang3.tuple.MutablePair;
 
-public class WhiteSpaceControl {
+import java.io.Serializable;
+
+public class WhiteSpaceControl implements Serializable {
     private static final boolean DEFAULT_VALUE = true;
     private MutablePair<Boolean, Boolean> begin = new MutablePair<>();
     private MutablePair<Boolean, Boolean> end = new MutablePair<>();
@@ -24,6 +24,10 @@ public class ParseException extends Exception {
         super(message);
     }
 
+    public void setExplanation(String explanation) {
+        this.expression = explanation;
+    }
+
     public void setExpression(String expression) {
         String result = expression.substring(expression.indexOf("input position"));
         this.expression = result.substring(0, 1).toUpperCase() + result.substring(1);
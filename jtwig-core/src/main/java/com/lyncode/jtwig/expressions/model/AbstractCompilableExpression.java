@@ -14,10 +14,15 @@
 
 package com.lyncode.jtwig.expressions.model;
 
+import com.lyncode.jtwig.compile.CompileContext;
+import com.lyncode.jtwig.exception.CalculateException;
 import com.lyncode.jtwig.expressions.api.CompilableExpression;
+import com.lyncode.jtwig.expressions.api.Expression;
 import com.lyncode.jtwig.parser.model.JtwigPosition;
 
-public abstract class AbstractCompilableExpression implements CompilableExpression {
+import java.io.Serializable;
+
+public abstract class AbstractCompilableExpression implements CompilableExpression, Serializable {
     private final JtwigPosition position;
     protected AbstractCompilableExpression(JtwigPosition position) {
         this.position = position;
@@ -25,4 +30,22 @@ public abstract class AbstractCompilableExpression implements CompilableExpressi
     public JtwigPosition position() {
         return position;
     }
+
+    protected static boolean isConstant(Expression expression) {
+        return expression instanceof Constant.Compiled;
+    }
+
+    /**
+     * Evaluates an operation over constant operands once, replacing it by its value. If it
+     * fails the operation is kept, so the error still shows up when rendering.
+     */
+    protected static Expression fold(CompileContext context, Expression operation) {
+        try {
+            Object value = operation.calculate(null);
+            context.expressionFolded();
+            return new Constant.Compiled(value);
+        } catch (CalculateException | RuntimeException e) {
+            return operation;
+        }
+    }
 }
@@ -21,7 +21,9 @@ import com.lyncode.jtwig.expressions.api.CompilableExpression;
 import com.lyncode.jtwig.expressions.api.Expression;
 import com.lyncode.jtwig.render.RenderContext;
 
-public class Constant<T> implements CompilableExpression {
+import java.io.Serializable;
+
+public class Constant<T> implements CompilableExpression, Serializable {
     private T value;
 
     public Constant(T value) {
@@ -56,6 +58,10 @@ public class Constant<T> implements CompilableExpression {
             this.value = value;
         }
 
+        public Object getValue() {
+            return value;
+        }
+
         @Override
         public Object calculate(RenderContext context) throws CalculateException {
             return value;
@@ -22,12 +22,24 @@ import com.lyncode.jtwig.expressions.api.Expression;
 import com.lyncode.jtwig.functions.exceptions.FunctionException;
 import com.lyncode.jtwig.functions.exceptions.FunctionNotFoundException;
 import com.lyncode.jtwig.functions.parameters.GivenParameters;
+import com.lyncode.jtwig.functions.parameters.resolve.exceptions.ResolveException;
+import com.lyncode.jtwig.functions.repository.CallableFunction;
+import com.lyncode.jtwig.functions.repository.FunctionBinding;
+import com.lyncode.jtwig.functions.repository.FunctionResolver;
 import com.lyncode.jtwig.parser.model.JtwigPosition;
 import com.lyncode.jtwig.render.RenderContext;
 import com.lyncode.jtwig.util.ObjectExtractor;
+import com.lyncode.jtwig.util.Range;
 
+import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class FunctionElement extends AbstractCompilableExpression {
     private String name;
@@ -49,36 +61,113 @@ public class FunctionElement extends AbstractCompilableExpression {
         for (CompilableExpression argument : arguments) {
             compiledArguments.add(argument.compile(context));
         }
-        return new Compiled(position(), name, compiledArguments);
+        Compiled compiled = new Compiled(position(), name, compiledArguments);
+        Constant.Compiled value = evaluatePure(context, compiled);
+        return value == null ? compiled : value;
+    }
+
+    /**
+     * Evaluates a call to a pure function whose arguments are all constants, using the
+     * function resolver of the compile configuration. Returns null when it cannot be done,
+     * leaving the call (and any error it raises) to render time.
+     */
+    static Constant.Compiled evaluatePure(CompileContext context, Compiled call) {
+        if (context == null || context.configuration() == null) return null;
+        FunctionResolver resolver = context.configuration().functionResolver();
+        if (resolver == null) return null;
+
+        Object[] values = new Object[call.arguments.size()];
+        for (int i = 0; i < values.length; i++) {
+            if (!(call.arguments.get(i) instanceof Constant.Compiled)) return null;
+            values[i] = ((Constant.Compiled) call.arguments.get(i)).getValue();
+        }
+
+        try {
+            CallableFunction function = resolver.get(call.name, new GivenParameters().add(values));
+            if (!function.isPure()) return null;
+            Object result = function.execute();
+            if (result != null && result.getClass().isArray()) return null;
+            Constant.Compiled value = new Constant.Compiled(readOnly(result));
+            context.expressionFolded();
+            return value;
+        } catch (FunctionException | ResolveException | InvocationTargetException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * A folded result is shared by every render of the template, so collections (and the
+     * collections within them) are only handed out as unmodifiable views.
+     */
+    private static Object readOnly(Object value) {
+        if (value instanceof Range) {
+            return value;
+        } else if (value instanceof List) {
+            List<Object> result = new ArrayList<>();
+            for (Object item : (List<?>) value)
+                result.add(readOnly(item));
+            return Collections.unmodifiableList(result);
+        } else if (value instanceof Set) {
+            Set<Object> result = new LinkedHashSet<>();
+            for (Object item : (Set<?>) value)
+                result.add(readOnly(item));
+            return Collections.unmodifiableSet(result);
+        } else if (value instanceof Map) {
+            Map<Object, Object> result = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet())
+                result.put(entry.getKey(), readOnly(entry.getValue()));
+            return Collections.unmodifiableMap(result);
+        } else if (value instanceof Collection) {
+            List<Object> result = new ArrayList<>();
+            for (Object item : (Collection<?>) value)
+                result.add(readOnly(item));
+            return Collections.unmodifiableCollection(result);
+        }
+        return value;
     }
 
     public static class Compiled implements Expression {
         private final JtwigPosition position;
         private final String name;
         private final List<Expression> arguments;
+        private final Class<?>[] constantTypes;
+        private volatile FunctionBinding binding;
 
         public Compiled(JtwigPosition position, String name, List<Expression> arguments) {
             this.position = position;
             this.name = name;
             this.arguments = arguments;
+            this.constantTypes = new Class<?>[arguments.size()];
+            for (int i = 0; i < constantTypes.length; i++) {
+                if (arguments.get(i) instanceof Constant.Compiled) {
+                    Object value = ((Constant.Compiled) arguments.get(i)).getValue();
+                    if (value != null)
+                        constantTypes[i] = value.getClass();
+                }
+            }
         }
 
         private Object[] calculateArguments(RenderContext context) throws CalculateException {
-            List<Object> result = new ArrayList<>();
-            for (Expression argument : arguments) {
-                result.add(argument.calculate(context));
+            Object[] result = new Object[arguments.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = arguments.get(i).calculate(context);
             }
-            return result.toArray();
+            return result;
         }
 
         @Override
         public Object calculate(RenderContext context) throws CalculateException {
             try {
-                GivenParameters parameters = new GivenParameters()
-                        .add(calculateArguments(context));
+                Object[] values = calculateArguments(context);
+                FunctionResolver resolver = context.model().functionResolver();
+                if (resolver != null) {
+                    FunctionBinding current = binding(resolver);
+                    if (current.accepts(values))
+                        return execute(current, values);
+                }
 
                 try {
-                    return context.model().executeFunction(name, parameters);
+                    return context.model().executeFunction(name, new GivenParameters().add(values));
                 } catch (FunctionNotFoundException e) {
                     throw new CalculateException(position + ": " + e.getMessage(), e);
                 }
@@ -87,9 +176,42 @@ public class FunctionElement extends AbstractCompilableExpression {
             }
         }
 
-        public Compiled addFirstArgument(Expression expression) {
-            this.arguments.add(0, expression);
-            return this;
+        /**
+         * The function resolver is only known at render time, so the overload chosen
+         * for the argument types known at compile time is bound on first use and kept
+         * for as long as the same, unchanged, resolver is used.
+         */
+        private FunctionBinding binding(FunctionResolver resolver) {
+            FunctionBinding current = binding;
+            if (current == null || !current.isCurrent(resolver)) {
+                current = resolver.bind(name, argumentTypes(resolver));
+                binding = current;
+            }
+            return current;
+        }
+
+        private Class<?>[] argumentTypes(FunctionResolver resolver) {
+            Class<?>[] types = constantTypes.clone();
+            for (int i = 0; i < types.length; i++) {
+                if (types[i] == null && arguments.get(i) instanceof Compiled)
+                    types[i] = ((Compiled) arguments.get(i)).binding(resolver).returnType();
+            }
+            return types;
+        }
+
+        private Object execute(FunctionBinding binding, Object[] values) throws FunctionException {
+            try {
+                return binding.execute(values);
+            } catch (InvocationTargetException | IllegalAccessException e) {
+                throw new FunctionException(e);
+            }
+        }
+
+        public Compiled withFirstArgument(Expression expression) {
+            List<Expression> newArguments = new ArrayList<>(arguments.size() + 1);
+            newArguments.add(expression);
+            newArguments.addAll(arguments);
+            return new Compiled(position, name, newArguments);
         }
 
         public Object extract(RenderContext context, ObjectExtractor extractor) throws CalculateException, ObjectExtractor.ExtractException {
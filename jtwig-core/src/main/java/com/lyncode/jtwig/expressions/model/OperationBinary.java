@@ -61,7 +61,19 @@ public class OperationBinary extends AbstractCompilableExpression {
                 Operator operator = operators.get(i - 1);
 
                 try {
-                    left = new Compiled(left, right, BinaryOperator.fromOperator(operator).operation());
+                    BinaryOperator binaryOperator = BinaryOperator.fromOperator(operator);
+                    if (binaryOperator == BinaryOperator.COMPOSITION && isConstant(left)) {
+                        Constant.Compiled value = composePure(context, left, right);
+                        if (value != null) {
+                            left = value;
+                            continue;
+                        }
+                    }
+                    Expression operation = new Compiled(left, right, binaryOperator.operation());
+                    if (binaryOperator.pure() && isConstant(left) && isConstant(right))
+                        left = fold(context, operation);
+                    else
+                        left = operation;
                 } catch (OperationNotFoundException e) {
                     throw new CompileException(position()+": "+ e.getMessage());
                 }
@@ -70,10 +82,18 @@ public class OperationBinary extends AbstractCompilableExpression {
         }
     }
 
+    private static Constant.Compiled composePure(CompileContext context, Expression left, Expression right) {
+        if (right instanceof Variable.Compiled)
+            return FunctionElement.evaluatePure(context, ((Variable.Compiled) right).toFunction().withFirstArgument(left));
+        if (right instanceof FunctionElement.Compiled)
+            return FunctionElement.evaluatePure(context, ((FunctionElement.Compiled) right).withFirstArgument(left));
+        return null;
+    }
+
     public static class Compiled implements Expression {
-        private Expression leftOperand;
-        private Expression rightOperand;
-        private BinaryOperation operation;
+        private final Expression leftOperand;
+        private final Expression rightOperand;
+        private final BinaryOperation operation;
 
         private Compiled(Expression leftOperand, Expression rightOperand, BinaryOperation operation) {
             this.leftOperand = leftOperand;
@@ -88,9 +108,8 @@ public class OperationBinary extends AbstractCompilableExpression {
 
         public Expression left () { return leftOperand; }
 
-        public Compiled left(Expression expression) {
-            this.leftOperand = expression;
-            return this;
+        public Compiled withLeft(Expression expression) {
+            return new Compiled(expression, rightOperand, operation);
         }
     }
 
@@ -46,7 +46,21 @@ public class OperationTernary extends AbstractCompilableExpression {
 
     @Override
     public Expression compile(CompileContext context) throws CompileException {
-        return new Compiled(condition.compile(context),
+        Expression compiledCondition = condition.compile(context);
+        if (isConstant(compiledCondition)) {
+            boolean value;
+            try {
+                value = isTrue(compiledCondition.calculate(null));
+            } catch (CalculateException | RuntimeException e) {
+                // like a failing fold, the operation is kept so the error shows up when rendering
+                return new Compiled(compiledCondition,
+                        ifTrueExpression.compile(context),
+                        ifFalseExpression.compile(context));
+            }
+            context.expressionFolded();
+            return value ? ifTrueExpression.compile(context) : ifFalseExpression.compile(context);
+        }
+        return new Compiled(compiledCondition,
                 ifTrueExpression.compile(context),
                 ifFalseExpression.compile(context));
     }
@@ -68,7 +68,10 @@ public class OperationUnary extends AbstractCompilableExpression {
     @Override
     public Expression compile(CompileContext context) throws CompileException {
         try {
-            return new Operation(operand.compile(context), UnaryOperator.fromOperator(operator).operation());
+            Expression compiled = operand.compile(context);
+            Expression operation = new Operation(compiled, UnaryOperator.fromOperator(operator).operation());
+            if (isConstant(compiled)) return fold(context, operation);
+            return operation;
         } catch (OperationNotFoundException e) {
             throw new CompileException(e);
         }
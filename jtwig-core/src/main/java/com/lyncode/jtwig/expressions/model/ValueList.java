@@ -23,51 +23,36 @@ import com.lyncode.jtwig.expressions.api.CompilableExpression;
 import com.lyncode.jtwig.expressions.api.Expression;
 import com.lyncode.jtwig.parser.model.JtwigPosition;
 import com.lyncode.jtwig.render.RenderContext;
+import com.lyncode.jtwig.util.Range;
 
 import java.util.ArrayList;
 import java.util.List;
 
 public class ValueList extends AbstractCompilableExpression {
     public static ValueList create(JtwigPosition position, Constant init, Constant end) {
-        ValueList valueList = new ValueList(position);
         if (init.isInstanceOf(Integer.class)) {
             if (!end.isInstanceOf(Integer.class))
                 throw new ParseBypassException(new ParseException(position + ": Expected an integer for the end of the comprehension list"));
-            int initValue = (int) init.as(Integer.class);
-            int endValue = (int) end.as(Integer.class);
-
-            if (initValue < endValue) {
-                for (int i = initValue; i <= endValue; i++)
-                    valueList.add(new Constant<>(i));
-            } else {
-                for (int i = endValue; i >= initValue; i--)
-                    valueList.add(new Constant<>(i));
-            }
-
+            return new ValueList(position, Range.integers((Integer) init.as(Integer.class), (Integer) end.as(Integer.class)));
         } else if (init.isInstanceOf(Character.class)) {
             if (!end.isInstanceOf(Character.class))
                 throw new ParseBypassException(new ParseException(position + ": Expected a character for the end of the comprehension list"));
-
-            char initValue = (char) init.as(Character.class);
-            char endValue = (char) end.as(Character.class);
-
-            if (initValue < endValue) {
-                for (char i = initValue; i <= endValue; i++)
-                    valueList.add(new Constant<>(i));
-            } else {
-                for (char i = endValue; i >= initValue; i--)
-                    valueList.add(new Constant<>(i));
-            }
+            return new ValueList(position, Range.characters((Character) init.as(Character.class), (Character) end.as(Character.class)));
         } else
             throw new ParseBypassException(new ParseException(position + ": Only integers and characters are allowed in comprehension lists"));
-        return valueList;
     }
 
     private final List<CompilableExpression> values = new ArrayList<>();
+    private final Range<?> range;
 
 
     public ValueList(JtwigPosition position) {
+        this(position, null);
+    }
+
+    private ValueList(JtwigPosition position, Range<?> range) {
         super(position);
+        this.range = range;
     }
 
 
@@ -78,6 +63,8 @@ public class ValueList extends AbstractCompilableExpression {
 
     @Override
     public Expression compile(CompileContext context) throws CompileException {
+        if (range != null) return new Constant.Compiled(range);
+
         List<Expression> expressions = new ArrayList<>();
         for (CompilableExpression value : values)
             expressions.add(value.compile(context));
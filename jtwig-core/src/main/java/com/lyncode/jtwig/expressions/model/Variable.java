@@ -15,10 +15,12 @@
 package com.lyncode.jtwig.expressions.model;
 
 import com.lyncode.jtwig.compile.CompileContext;
+import com.lyncode.jtwig.compile.VariableSlots;
 import com.lyncode.jtwig.exception.CalculateException;
 import com.lyncode.jtwig.exception.CompileException;
 import com.lyncode.jtwig.expressions.api.Expression;
 import com.lyncode.jtwig.parser.model.JtwigPosition;
+import com.lyncode.jtwig.render.Frame;
 import com.lyncode.jtwig.render.RenderContext;
 import com.lyncode.jtwig.util.ObjectExtractor;
 
@@ -34,16 +36,38 @@ public class Variable extends AbstractCompilableExpression {
 
     @Override
     public Expression compile(CompileContext context) throws CompileException {
-        return new Compiled(position(), name);
+        return new Compiled(position(), name, context == null ? null : context.slots());
     }
 
     public static class Compiled implements Expression {
+        private static final int UNRESOLVED = -2;
+
         private final String name;
         private final JtwigPosition position;
+        private final VariableSlots slots;
+        private int slot = UNRESOLVED;
 
         public Compiled(JtwigPosition position, String name) {
+            this(position, name, null);
+        }
+
+        public Compiled(JtwigPosition position, String name, VariableSlots slots) {
             this.position = position;
             this.name = name;
+            this.slots = slots;
+        }
+
+        /**
+         * Assignments later in the template (or in templates included after it) also give
+         * the name a slot, so it is only looked up once compilation is over, on first use.
+         */
+        private int slot() {
+            int result = slot;
+            if (result == UNRESOLVED) {
+                result = slots == null ? -1 : slots.find(name);
+                slot = result;
+            }
+            return result;
         }
 
 
@@ -53,6 +77,14 @@ public class Variable extends AbstractCompilableExpression {
 
         @Override
         public Object calculate(RenderContext context) throws CalculateException {
+            int slot = slot();
+            if (slot >= 0) {
+                Frame frame = context.frame();
+                if (frame != null) {
+                    Object value = frame.get(slot);
+                    if (value != Frame.UNSET) return value;
+                }
+            }
             return context.model().map(name);
         }
 
@@ -73,4 +73,11 @@ public enum BinaryOperator {
     public BinaryOperation operation() {
         return operation;
     }
+
+    /**
+     * Whether the operation only depends on its operand values (no functions, no selections).
+     */
+    public boolean pure() {
+        return operation instanceof SimpleBinaryOperation;
+    }
 }
@@ -33,8 +33,6 @@ public class CompositionOperation implements BinaryOperation {
         else
             throw new CalculateException("Composition always requires a function to execute as the right argument");
 
-        function.addFirstArgument(left);
-
-        return function.calculate(context);
+        return function.withFirstArgument(left).calculate(context);
     }
 }
@@ -16,11 +16,14 @@ package com.lyncode.jtwig.expressions.operations.binary;
 
 import com.lyncode.jtwig.exception.CalculateException;
 import com.lyncode.jtwig.functions.util.ObjectIterator;
+import com.lyncode.jtwig.util.Range;
 
 public class InOperation extends SimpleBinaryOperation {
     @Override
     protected Object apply(Object left, Object right) throws CalculateException {
         if (right == null) return false;
+        if (right instanceof Range)
+            return ((Range) right).contains(left);
         if ((right instanceof Iterable) || right.getClass().isArray())
             return new ObjectIterator(right).contains(left);
         else if (right instanceof String)
@@ -14,6 +14,8 @@
 
 package com.lyncode.jtwig.parser;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.lyncode.jtwig.addons.AddonParser;
 import com.lyncode.jtwig.addons.concurrent.ConcurrentParser;
 import com.lyncode.jtwig.addons.filter.FilterParser;
@@ -24,21 +26,35 @@ import com.lyncode.jtwig.content.api.Renderable;
 import com.lyncode.jtwig.exception.CompileException;
 import com.lyncode.jtwig.exception.ParseException;
 import com.lyncode.jtwig.exception.RenderException;
+import com.lyncode.jtwig.exception.ResourceException;
+import com.lyncode.jtwig.parser.cache.DiskParseCache;
 import com.lyncode.jtwig.parser.config.ParserConfiguration;
+import com.lyncode.jtwig.parser.config.ParserEngine;
+import com.lyncode.jtwig.parser.direct.DirectContentParser;
 import com.lyncode.jtwig.parser.parboiled.JtwigContentParser;
 import com.lyncode.jtwig.render.RenderContext;
 import com.lyncode.jtwig.resource.JtwigResource;
+import org.parboiled.common.FileUtils;
 
 import java.io.IOException;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
 
 public class JtwigParser {
     private final ParserConfiguration configuration;
     private final List<Class<? extends AddonParser>> addons = new ArrayList<>();
+    private final Cache<JtwigResource, Parsed> parsed;
+    private final ConcurrentMap<JtwigResource, PendingParse> inFlight = new ConcurrentHashMap<>();
+    private volatile ParserPool pool;
 
     public JtwigParser(ParserConfiguration configuration) {
         this.configuration = configuration;
+        this.parsed = CacheBuilder.newBuilder()
+                .maximumSize(configuration.getParsedCacheSize())
+                .build();
 
         this
                 .withAddonParser(SpacelessParser.class)
@@ -53,14 +69,178 @@ public class JtwigParser {
 
     public JtwigParser withAddonParser(Class<? extends AddonParser> addonParser) {
         this.addons.add(addonParser);
+        this.parsed.invalidateAll();
         return this;
     }
 
-    public Compilable parse(JtwigResource resource) throws ParseException {
-        JtwigContentParser parser = JtwigContentParser
-                .newParser(resource, configuration, addons);
+    public Compilable parse(final JtwigResource resource) throws ParseException {
+        final long lastModified = lastModified(resource);
+        final String fingerprint = fingerprint();
+        Parsed entry = parsed.getIfPresent(resource);
+        if (entry != null && entry.isFor(lastModified, fingerprint))
+            return entry.compilable;
 
-        return new Document(JtwigContentParser.parse(parser, resource));
+        // concurrent requests for the same resource wait for a single parse
+        PendingParse pending = new PendingParse(lastModified, fingerprint, new Callable<Compilable>() {
+            @Override
+            public Compilable call() throws Exception {
+                Compilable compilable = new Document(parseContent(resource, fingerprint));
+                parsed.put(resource, new Parsed(compilable, lastModified, fingerprint));
+                return compilable;
+            }
+        });
+        PendingParse running = inFlight.putIfAbsent(resource, pending);
+        if (running != null && running.isFor(lastModified, fingerprint))
+            return running.result();
+
+        try {
+            pending.run();
+        } finally {
+            if (running == null) inFlight.remove(resource, pending);
+        }
+        return pending.result();
+    }
+
+    private Compilable parseContent(JtwigResource resource, String fingerprint) throws ParseException {
+        if (configuration.getCacheDirectory() != null)
+            return parseWithCache(resource, fingerprint);
+        return parseText(resource, read(resource), fingerprint);
+    }
+
+    private Compilable parseText(JtwigResource resource, String content, String fingerprint) throws ParseException {
+        if (configuration.getEngine() == ParserEngine.DIRECT && DirectContentParser.supports(addons))
+            return DirectContentParser.parse(configuration, addons, resource, content);
+
+        ParserPool pool = pool(fingerprint);
+        JtwigContentParser parser = pool.borrow();
+        try {
+            return JtwigContentParser.parse(parser, resource, content);
+        } finally {
+            pool.release(parser);
+        }
+    }
+
+    private String read(JtwigResource resource) throws ParseException {
+        try {
+            return FileUtils.readAllText(resource.retrieve(), Charset.defaultCharset());
+        } catch (ResourceException e) {
+            throw new ParseException(e);
+        }
+    }
+
+    private ParserPool pool(String fingerprint) {
+        ParserPool current = pool;
+        if (current == null || !current.fingerprint.equals(fingerprint)) {
+            current = new ParserPool(fingerprint);
+            pool = current;
+        }
+        return current;
+    }
+
+    private long lastModified(JtwigResource resource) throws ParseException {
+        try {
+            return resource.lastModified();
+        } catch (ResourceException e) {
+            throw new ParseException(e);
+        }
+    }
+
+    private Compilable parseWithCache(JtwigResource resource, String fingerprint) throws ParseException {
+        String content = read(resource);
+        DiskParseCache cache = new DiskParseCache(configuration.getCacheDirectory());
+        String key = DiskParseCache.hash(resource.getClass().getName() + ":" + resource + "\n" + fingerprint);
+        String contentHash = DiskParseCache.hash(content);
+
+        Compilable compilable = cache.load(key, contentHash, resource);
+        if (compilable == null) {
+            compilable = parseText(resource, content, fingerprint);
+            cache.store(key, contentHash, compilable);
+        }
+        return compilable;
+    }
+
+    private String fingerprint() {
+        StringBuilder builder = new StringBuilder()
+                .append(configuration.getBeginCode()).append(configuration.getEndCode())
+                .append(configuration.getBeginOutput()).append(configuration.getEndOutput())
+                .append(configuration.getBeginComment()).append(configuration.getEndComment())
+                .append(configuration.isUsingStrictEvaluation())
+                .append(configuration.getEngine());
+        for (Class<? extends AddonParser> addon : addons)
+            builder.append(addon.getName());
+        return builder.toString();
+    }
+
+    /**
+     * Creating parboiled parsers generates bytecode, so instances are kept and reused for the same
+     * configuration and addons. A parser is used by one run at a time.
+     */
+    private class ParserPool {
+        private final String fingerprint;
+        private final Queue<JtwigContentParser> parsers = new ConcurrentLinkedQueue<>();
+
+        private ParserPool(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        private JtwigContentParser borrow() {
+            JtwigContentParser parser = parsers.poll();
+            if (parser == null)
+                parser = JtwigContentParser.newParser(configuration, addons);
+            return parser;
+        }
+
+        private void release(JtwigContentParser parser) {
+            parser.setResource(null);
+            if (pool == this)
+                parsers.offer(parser);
+        }
+    }
+
+    private static class Parsed {
+        private final Compilable compilable;
+        private final long lastModified;
+        private final String fingerprint;
+
+        private Parsed(Compilable compilable, long lastModified, String fingerprint) {
+            this.compilable = compilable;
+            this.lastModified = lastModified;
+            this.fingerprint = fingerprint;
+        }
+
+        private boolean isFor(long lastModified, String fingerprint) {
+            return this.lastModified == lastModified && this.fingerprint.equals(fingerprint);
+        }
+    }
+
+    private static class PendingParse extends FutureTask<Compilable> {
+        private final long lastModified;
+        private final String fingerprint;
+
+        private PendingParse(long lastModified, String fingerprint, Callable<Compilable> callable) {
+            super(callable);
+            this.lastModified = lastModified;
+            this.fingerprint = fingerprint;
+        }
+
+        private boolean isFor(long lastModified, String fingerprint) {
+            return this.lastModified == lastModified && this.fingerprint.equals(fingerprint);
+        }
+
+        private Compilable result() throws ParseException {
+            try {
+                return get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ParseException(e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof ParseException) throw (ParseException) cause;
+                if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+                if (cause instanceof Error) throw (Error) cause;
+                throw new ParseException(cause);
+            }
+        }
     }
 
     private static class Document implements Compilable {
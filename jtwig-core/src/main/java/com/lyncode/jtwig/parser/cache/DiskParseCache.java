@@ -0,0 +1,107 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.parser.cache;
+
+import com.google.common.hash.Hashing;
+import com.lyncode.jtwig.content.api.Compilable;
+import com.lyncode.jtwig.parser.model.JtwigPosition;
+import com.lyncode.jtwig.resource.JtwigResource;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Keeps parsed templates on disk so a restarted JVM does not have to run the grammar again.
+ * Entries are keyed by resource identity and only reused while the content hash matches.
+ * Resources are not stored, positions in a loaded tree get the resource it is loaded for.
+ */
+public class DiskParseCache {
+    private static final Logger log = LogManager.getLogger(DiskParseCache.class);
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final int FORMAT_VERSION = 1;
+
+    private final File directory;
+
+    public DiskParseCache(File directory) {
+        this.directory = directory;
+    }
+
+    public static String hash (String value) {
+        return Hashing.sha1().hashString(value, UTF_8).toString();
+    }
+
+    public Compilable load (String key, String contentHash, JtwigResource resource) {
+        File file = file(key);
+        if (!file.isFile()) return null;
+
+        try (ObjectInputStream input = new PositionResolvingInputStream(new BufferedInputStream(new FileInputStream(file)), resource)) {
+            if (input.readInt() != FORMAT_VERSION) return null;
+            if (!contentHash.equals(input.readUTF())) return null;
+            return (Compilable) input.readObject();
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            log.debug("Ignoring unreadable parse cache entry " + file, e);
+            return null;
+        }
+    }
+
+    public void store (String key, String contentHash, Compilable compilable) {
+        File file = file(key);
+        File temporary = null;
+        try {
+            if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory())
+                throw new IOException("Unable to create " + directory);
+
+            temporary = File.createTempFile(key, ".tmp", directory);
+            try (ObjectOutputStream output = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)))) {
+                output.writeInt(FORMAT_VERSION);
+                output.writeUTF(contentHash);
+                output.writeObject(compilable);
+            }
+            Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // not serializable (e.g. custom addons) or file system issues, parsing still works without the cache
+            log.debug("Unable to store parse cache entry " + file, e);
+            if (temporary != null && temporary.exists() && !temporary.delete())
+                temporary.deleteOnExit();
+        }
+    }
+
+    private File file (String key) {
+        return new File(directory, key + ".ser");
+    }
+
+    private static class PositionResolvingInputStream extends ObjectInputStream {
+        private final JtwigResource resource;
+
+        private PositionResolvingInputStream(InputStream input, JtwigResource resource) throws IOException {
+            super(input);
+            this.resource = resource;
+            enableResolveObject(true);
+        }
+
+        @Override
+        protected Object resolveObject(Object obj) throws IOException {
+            if (obj instanceof JtwigPosition) {
+                JtwigPosition position = (JtwigPosition) obj;
+                return new JtwigPosition(resource, position.getRow(), position.getColumn());
+            }
+            return obj;
+        }
+    }
+}
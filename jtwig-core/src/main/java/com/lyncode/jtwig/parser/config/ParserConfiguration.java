@@ -14,6 +14,8 @@
 
 package com.lyncode.jtwig.parser.config;
 
+import java.io.File;
+
 public class ParserConfiguration {
     public static ParserConfiguration configuration () {
         return new ParserConfiguration();
@@ -26,6 +28,9 @@ public class ParserConfiguration {
     private String beginComment = "{#";
     private String endComment = "#}";
     private boolean useStrictEvaluation = true;
+    private File cacheDirectory = null;
+    private long parsedCacheSize = 1000;
+    private ParserEngine engine = ParserEngine.PARBOILED;
 
     public ParserConfiguration() {}
 
@@ -91,4 +96,51 @@ public class ParserConfiguration {
         this.useStrictEvaluation = useStrictEvaluation;
         return this;
     }
+
+    public File getCacheDirectory() {
+        return cacheDirectory;
+    }
+
+    /**
+     * Directory where parsed templates are kept between restarts. Disabled when null (default).
+     */
+    public ParserConfiguration withCacheDirectory(File cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+        return this;
+    }
+
+    public long getParsedCacheSize() {
+        return parsedCacheSize;
+    }
+
+    /**
+     * Maximum number of parsed templates a parser keeps for reuse, least recently used ones are evicted first.
+     */
+    public ParserConfiguration withParsedCacheSize(long parsedCacheSize) {
+        this.parsedCacheSize = parsedCacheSize;
+        return this;
+    }
+
+    public ParserConfiguration copy() {
+        return new ParserConfiguration()
+                .withBeginCode(beginCode)
+                .withEndCode(endCode)
+                .withBeginOutput(beginOutput)
+                .withEndOutput(endOutput)
+                .withBeginComment(beginComment)
+                .withEndComment(endComment)
+                .useStrictEvaluation(useStrictEvaluation)
+                .withCacheDirectory(cacheDirectory)
+                .withParsedCacheSize(parsedCacheSize)
+                .withEngine(engine);
+    }
+
+    public ParserEngine getEngine() {
+        return engine;
+    }
+
+    public ParserConfiguration withEngine(ParserEngine engine) {
+        this.engine = engine;
+        return this;
+    }
 }
@@ -0,0 +1,82 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.parser.direct;
+
+import com.lyncode.jtwig.addons.Addon;
+import com.lyncode.jtwig.addons.AddonParser;
+import com.lyncode.jtwig.addons.concurrent.Concurrent;
+import com.lyncode.jtwig.addons.concurrent.ConcurrentParser;
+import com.lyncode.jtwig.addons.filter.Filter;
+import com.lyncode.jtwig.addons.filter.FilterParser;
+import com.lyncode.jtwig.addons.spaceless.Spaceless;
+import com.lyncode.jtwig.addons.spaceless.SpacelessParser;
+import com.lyncode.jtwig.exception.ParseException;
+import com.lyncode.jtwig.expressions.api.CompilableExpression;
+
+/**
+ * Counterparts of the bundled {@link AddonParser}s. Templates using any other addon are parsed with parboiled.
+ */
+enum DirectAddon {
+    SPACELESS(SpacelessParser.class, "spaceless", "endspaceless") {
+        @Override
+        Addon start(DirectExpressionParser expressions) {
+            return new Spaceless();
+        }
+    },
+    FILTER(FilterParser.class, "filter", "endfilter") {
+        @Override
+        Addon start(DirectExpressionParser expressions) throws ParseException {
+            CompilableExpression functions = expressions.functions();
+            if (functions == null) throw expressions.error("Filter should have at least one function");
+            return new Filter(functions);
+        }
+    },
+    CONCURRENT(ConcurrentParser.class, "concurrent", "endconcurrent") {
+        @Override
+        Addon start(DirectExpressionParser expressions) {
+            return new Concurrent();
+        }
+    };
+
+    static DirectAddon of(Class<? extends AddonParser> parserClass) {
+        for (DirectAddon addon : values())
+            if (addon.parserClass.equals(parserClass))
+                return addon;
+        return null;
+    }
+
+    private final Class<? extends AddonParser> parserClass;
+    private final String beginKeyword;
+    private final String endKeyword;
+
+    DirectAddon(Class<? extends AddonParser> parserClass, String beginKeyword, String endKeyword) {
+        this.parserClass = parserClass;
+        this.beginKeyword = beginKeyword;
+        this.endKeyword = endKeyword;
+    }
+
+    String beginKeyword() {
+        return beginKeyword;
+    }
+
+    String endKeyword() {
+        return endKeyword;
+    }
+
+    /**
+     * Parses whatever follows the begin keyword, up to the end of the opening tag.
+     */
+    abstract Addon start(DirectExpressionParser expressions) throws ParseException;
+}
@@ -0,0 +1,421 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.parser.direct;
+
+import com.lyncode.jtwig.addons.Addon;
+import com.lyncode.jtwig.addons.AddonParser;
+import com.lyncode.jtwig.content.api.Compilable;
+import com.lyncode.jtwig.content.api.Tag;
+import com.lyncode.jtwig.content.model.compilable.*;
+import com.lyncode.jtwig.content.model.tag.WhiteSpaceControl;
+import com.lyncode.jtwig.exception.ParseException;
+import com.lyncode.jtwig.expressions.api.CompilableExpression;
+import com.lyncode.jtwig.expressions.model.Constant;
+import com.lyncode.jtwig.parser.config.ParserConfiguration;
+import com.lyncode.jtwig.parser.model.JtwigKeyword;
+import com.lyncode.jtwig.resource.JtwigResource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.lyncode.jtwig.parser.model.JtwigKeyword.*;
+
+/**
+ * Hand written counterpart of {@link com.lyncode.jtwig.parser.parboiled.JtwigContentParser}, building the
+ * same {@link Compilable} model. Text runs are scanned up to the next delimiter at once and tags are
+ * dispatched on their keyword instead of trying every rule at each position.
+ */
+public class DirectContentParser {
+    /**
+     * Whether all the given addons have a direct counterpart.
+     */
+    public static boolean supports(List<Class<? extends AddonParser>> addons) {
+        for (Class<? extends AddonParser> addon : addons)
+            if (DirectAddon.of(addon) == null)
+                return false;
+        return true;
+    }
+
+    public static Compilable parse(ParserConfiguration configuration, List<Class<? extends AddonParser>> addons,
+                                   JtwigResource resource, String content) throws ParseException {
+        return new DirectContentParser(configuration, addons, resource, content).start();
+    }
+
+    private final TemplateScanner scanner;
+    private final DirectExpressionParser expressions;
+    private final List<DirectAddon> addons = new ArrayList<>();
+    private final ParserConfiguration configuration;
+    private final TemplateScanner.Terminator endOfText = new TemplateScanner.Terminator() {
+        @Override
+        public boolean matches(TemplateScanner scanner) {
+            return scanner.atOpening();
+        }
+    };
+    private final TemplateScanner.Terminator endOfVerbatim = new TemplateScanner.Terminator() {
+        @Override
+        public boolean matches(TemplateScanner scanner) {
+            if (!scanner.consume(configuration.getBeginCode())) return false;
+            scanner.spacing();
+            return scanner.keyword(ENDVERBATIM);
+        }
+    };
+    private boolean trim = false;
+
+    private DirectContentParser(ParserConfiguration configuration, List<Class<? extends AddonParser>> addons,
+                                JtwigResource resource, String content) {
+        this.configuration = configuration;
+        this.scanner = new TemplateScanner(resource, configuration, content);
+        this.expressions = new DirectExpressionParser(scanner);
+        for (Class<? extends AddonParser> addon : addons)
+            this.addons.add(DirectAddon.of(addon));
+    }
+
+    private Compilable start() throws ParseException {
+        Compilable result = extendTemplate();
+        if (result != null) return result;
+
+        Sequence content = content();
+        if (!scanner.eoi()) throw scanner.error("Unexpected input");
+        return content;
+    }
+
+    private Compilable extendTemplate() throws ParseException {
+        int start = scanner.index();
+        scanner.spacing();
+        boolean opened = scanner.consume(configuration.getBeginCode());
+        scanner.spacing();
+        if (!opened || !keyword(EXTENDS)) {
+            scanner.reset(start);
+            return null;
+        }
+
+        int section = scanner.index();
+        String path = mandatory(scanner.stringLiteral(), section, "Wrong extends syntax");
+        scanner.spacing();
+        if (!scanner.consume(configuration.getEndCode())) throw scanner.error(section, "Wrong extends syntax");
+        Extends result = blocks(new Extends(path));
+        scanner.spacing();
+        if (!scanner.eoi()) throw scanner.error(section, "Wrong extends syntax");
+        return result;
+    }
+
+    private Sequence content() throws ParseException {
+        Sequence sequence = new Sequence();
+        while (!scanner.eoi()) {
+            Compilable element = element();
+            if (element == null) break;
+            sequence.add(element);
+        }
+        return sequence;
+    }
+
+    private Compilable element() throws ParseException {
+        if (scanner.at(configuration.getBeginOutput())) return output();
+
+        int start = scanner.index();
+        if (openCode()) {
+            Compilable tag = tag();
+            if (tag != null) return tag;
+            scanner.reset(start);
+        }
+
+        if (scanner.at(configuration.getBeginComment())) {
+            Compilable comment = comment();
+            if (comment != null) return comment;
+        }
+
+        if (openCode()) {
+            Compilable addon = addon();
+            if (addon != null) return addon;
+            if (!endsContent()) throw scanner.error("Unknown tag");
+            scanner.reset(start);
+            return null;
+        }
+
+        String text = scanner.text(endOfText);
+        return text == null ? null : new Text(text);
+    }
+
+    private Compilable tag() throws ParseException {
+        if (keyword(BLOCK)) return block();
+        if (keyword(INCLUDE)) return include();
+        if (keyword(EMBED)) return embed();
+        if (keyword(FOR)) return forEach();
+        if (keyword(IF)) return ifCondition();
+        if (keyword(SET)) return set();
+        if (keyword(VERBATIM)) return verbatim();
+        return null;
+    }
+
+    /**
+     * Tags closing (or continuing) an enclosing element end the current content.
+     */
+    private boolean endsContent() {
+        if (scanner.keyword(ENDBLOCK) || scanner.keyword(ENDFOR) || scanner.keyword(ENDIF)
+                || scanner.keyword(ELSEIF) || scanner.keyword(ELSE) || scanner.keyword(ENDFILTER))
+            return true;
+        for (DirectAddon addon : addons)
+            if (scanner.at(addon.beginKeyword()) || scanner.at(addon.endKeyword()))
+                return true;
+        return false;
+    }
+
+    private Compilable output() throws ParseException {
+        scanner.consume(configuration.getBeginOutput());
+        trim = scanner.consume("-");
+        scanner.spacing();
+
+        int section = scanner.index();
+        Output output = new Output(mandatory(expressions.expression(), section, "Wrong output syntax"));
+        whiteSpace(output).trimBeforeBegin(trim);
+        trim = scanner.consume("-");
+        whiteSpace(output).trimAfterEnd(trim);
+        if (!scanner.consume(configuration.getEndOutput())) throw scanner.error(section, "Wrong output syntax");
+        return output;
+    }
+
+    private Block block() throws ParseException {
+        int section = scanner.index();
+        Block block = new Block(mandatory(expressions.identifierAsString(), section, "Wrong block syntax"));
+        whiteSpace(block).trimBeforeBegin(trim);
+        closeCode(section, "Wrong block syntax");
+        whiteSpace(block).trimAfterBegin(trim);
+        block.withContent(content());
+        openCode(section, "Wrong block syntax");
+        whiteSpace(block).trimBeforeEnd(trim);
+        if (!keyword(ENDBLOCK)) throw scanner.error(section, "Wrong block syntax");
+        String name = expressions.identifierAsString();
+        if (name != null && !name.equals(block.name()))
+            throw scanner.error("Start statement and ending block names do not match");
+        closeCode(section, "Wrong block syntax");
+        whiteSpace(block).trimAfterEnd(trim);
+        return block;
+    }
+
+    private Extends blocks(Extends parent) throws ParseException {
+        while (true) {
+            int start = scanner.index();
+            scanner.spacing();
+            if (!openCode() || !keyword(BLOCK)) {
+                scanner.reset(start);
+                return parent;
+            }
+            parent.add(block());
+        }
+    }
+
+    private Compilable include() throws ParseException {
+        int section = scanner.index();
+        Include include = new Include(mandatory(scanner.stringLiteral(), section, "Wrong include syntax"));
+        scanner.spacing();
+        whiteSpace(include).trimBeforeBegin(trim);
+        closeCode(section, "Wrong include syntax");
+        whiteSpace(include).trimAfterEnd(trim);
+        return include;
+    }
+
+    private Compilable embed() throws ParseException {
+        int section = scanner.index();
+        Extends embed = new Extends(mandatory(scanner.stringLiteral(), section, "Wrong embed syntax"));
+        scanner.spacing();
+        closeCode(section, "Wrong embed syntax");
+        blocks(embed);
+        scanner.spacing();
+        openCode(section, "Wrong embed syntax");
+        if (!keyword(ENDEMBED)) throw scanner.error(section, "Wrong embed syntax");
+        closeCode(section, "Wrong embed syntax");
+        return embed;
+    }
+
+    private Compilable forEach() throws ParseException {
+        int section = scanner.index();
+        String variable = mandatory(expressions.identifierAsString(), section, "Wrong for each syntax");
+        Content<?> loop = null;
+
+        int start = scanner.index();
+        if (symbol(",")) {
+            String value = expressions.identifierAsString();
+            CompilableExpression collection = value != null && keyword(IN) ? expressions.expression() : null;
+            if (collection != null)
+                loop = new MapLoopControl(variable, value, collection);
+        }
+        if (loop == null) {
+            scanner.reset(start);
+            CompilableExpression collection = keyword(IN) ? expressions.expression() : null;
+            loop = new LoopControl(variable, mandatory(collection, section, "Wrong for each syntax"));
+        }
+
+        whiteSpace(loop).trimBeforeBegin(trim);
+        closeCode(section, "Wrong for each syntax");
+        whiteSpace(loop).trimAfterBegin(trim);
+        loop.withContent(content());
+        openCode(section, "Wrong for each syntax");
+        whiteSpace(loop).trimBeforeEnd(trim);
+        if (!keyword(ENDFOR)) throw scanner.error(section, "Wrong for each syntax");
+        closeCode(section, "Wrong for each syntax");
+        whiteSpace(loop).trimAfterEnd(trim);
+        return loop;
+    }
+
+    private Compilable ifCondition() throws ParseException {
+        IfControl control = new IfControl();
+        int section = scanner.index();
+        IfControl.Case current = new IfControl.Case(mandatory(expressions.expression(), section, "Wrong if syntax"));
+        whiteSpace(current).trimBeforeBegin(trim);
+        closeCode(section, "Wrong if syntax");
+        whiteSpace(current).trimAfterBegin(trim);
+        current.withContent(content());
+
+        while (true) {
+            int start = scanner.index();
+            if (!openCode() || !keyword(ELSEIF)) {
+                scanner.reset(start);
+                break;
+            }
+            current = nextCase(control, current, mandatory(expressions.expression(), section, "Wrong if syntax"), section);
+        }
+
+        int start = scanner.index();
+        if (openCode() && keyword(ELSE))
+            current = nextCase(control, current, new Constant<>(true), section);
+        else
+            scanner.reset(start);
+
+        control.add(current);
+        openCode(section, "Wrong if syntax");
+        whiteSpace(current).trimBeforeEnd(trim);
+        if (!keyword(ENDIF)) throw scanner.error(section, "Wrong if syntax");
+        closeCode(section, "Wrong if syntax");
+        whiteSpace(current).trimAfterEnd(trim);
+        return control;
+    }
+
+    private IfControl.Case nextCase(IfControl control, IfControl.Case previous, CompilableExpression condition,
+                                    int section) throws ParseException {
+        IfControl.Case next = new IfControl.Case(condition);
+        whiteSpace(previous).trimBeforeEnd(trim);
+        whiteSpace(next).trimBeforeBegin(trim);
+        closeCode(section, "Wrong if syntax");
+        whiteSpace(previous).trimAfterEnd(trim);
+        whiteSpace(next).trimAfterBegin(trim);
+        control.add(previous);
+        next.withContent(content());
+        return next;
+    }
+
+    private Compilable set() throws ParseException {
+        int section = scanner.index();
+        String variable = mandatory(expressions.identifierAsString(), section, "Wrong set syntax");
+        if (!symbol("=")) throw scanner.error(section, "Wrong set syntax");
+        SetVariable set = new SetVariable(variable, mandatory(expressions.expression(), section, "Wrong set syntax"));
+        whiteSpace(set).trimBeforeBegin(trim);
+        closeCode(section, "Wrong set syntax");
+        whiteSpace(set).trimAfterEnd(trim);
+        return set;
+    }
+
+    private Compilable verbatim() throws ParseException {
+        int section = scanner.index();
+        Verbatim verbatim = new Verbatim();
+        whiteSpace(verbatim).trimBeforeBegin(trim);
+        closeCode(section, "Wrong verbatim syntax");
+        String text = mandatory(scanner.text(endOfVerbatim), section, "Wrong verbatim syntax");
+        verbatim.withContent(new Sequence().add(new Text(text)));
+        openCode(section, "Wrong verbatim syntax");
+        if (!keyword(ENDVERBATIM)) throw scanner.error(section, "Wrong verbatim syntax");
+        closeCode(section, "Wrong verbatim syntax");
+        whiteSpace(verbatim).trimAfterEnd(trim);
+        return verbatim;
+    }
+
+    private Compilable comment() {
+        int start = scanner.index();
+        scanner.consume(configuration.getBeginComment());
+        Comment comment = new Comment();
+        trim = scanner.consume("-");
+        whiteSpace(comment).trimBeforeBegin(trim);
+        if (!scanner.commentBody()) {
+            scanner.reset(start);
+            return null;
+        }
+        trim = scanner.consume("-");
+        whiteSpace(comment).trimAfterEnd(trim);
+        scanner.consume(configuration.getEndComment());
+        return comment;
+    }
+
+    private Compilable addon() throws ParseException {
+        for (DirectAddon addon : addons) {
+            if (!scanner.consume(addon.beginKeyword())) continue;
+            scanner.spacing();
+
+            String error = "Wrong syntax for " + addon.beginKeyword();
+            Addon result = addon.start(expressions);
+            int section = scanner.index();
+            whiteSpace(result).trimBeforeBegin(trim);
+            closeCode(section, error);
+            whiteSpace(result).trimAfterBegin(trim);
+            result.withContent(content());
+            openCode(section, error);
+            if (!scanner.consume(addon.endKeyword())) throw scanner.error(section, error);
+            scanner.spacing();
+            whiteSpace(result).trimBeforeEnd(trim);
+            closeCode(section, error);
+            whiteSpace(result).trimAfterEnd(trim);
+            return result;
+        }
+        return null;
+    }
+
+    private boolean openCode() {
+        if (!scanner.consume(configuration.getBeginCode())) return false;
+        trim = scanner.consume("-");
+        scanner.spacing();
+        return true;
+    }
+
+    private void openCode(int section, String error) throws ParseException {
+        if (!openCode()) throw scanner.error(section, error);
+    }
+
+    private void closeCode(int section, String error) throws ParseException {
+        trim = scanner.consume("-");
+        if (!scanner.consume(configuration.getEndCode())) throw scanner.error(section, error);
+    }
+
+    private boolean keyword(JtwigKeyword keyword) {
+        if (!scanner.keyword(keyword)) return false;
+        scanner.spacing();
+        return true;
+    }
+
+    private boolean symbol(String symbol) {
+        if (!scanner.consume(symbol)) return false;
+        scanner.spacing();
+        return true;
+    }
+
+    /**
+     * Like the grammar, a missing mandatory part is reported where its section (the rest of the tag) starts.
+     */
+    private <T> T mandatory(T value, int section, String error) throws ParseException {
+        if (value == null) throw scanner.error(section, error);
+        return value;
+    }
+
+    private static WhiteSpaceControl whiteSpace(Tag tag) {
+        return tag.tag().whiteSpaceControl();
+    }
+}
@@ -0,0 +1,395 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.parser.direct;
+
+import com.lyncode.jtwig.exception.ParseBypassException;
+import com.lyncode.jtwig.exception.ParseException;
+import com.lyncode.jtwig.expressions.api.CompilableExpression;
+import com.lyncode.jtwig.expressions.model.*;
+import com.lyncode.jtwig.parser.model.JtwigKeyword;
+import com.lyncode.jtwig.parser.model.JtwigPosition;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Recursive descent version of {@link com.lyncode.jtwig.parser.parboiled.JtwigExpressionParser}.
+ * Every rule returns null (leaving the scanner untouched) when it does not match and throws once
+ * a mandatory part is missing, following the same ordered choices as the grammar.
+ */
+class DirectExpressionParser {
+    private static final int SPECIFIC = 0;
+    private static final int RELATIONAL = 4;
+    private static final int ADDITION = 5;
+    private static final int MULTIPLICATION = 6;
+    private static final Operator[][] OPERATORS = {
+            { Operator.STARTS_WITH, Operator.ENDS_WITH, Operator.MATCHES, Operator.IN },
+            { Operator.OR },
+            { Operator.AND },
+            { Operator.EQUAL, Operator.DIFF },
+            { Operator.LTE, Operator.GTE, Operator.LT, Operator.GT },
+            { Operator.ADD, Operator.SUB },
+            { Operator.INT_DIV, Operator.INT_TIMES, Operator.TIMES, Operator.DIV, Operator.MOD }
+    };
+
+    private static final Set<Operator> WORDS = EnumSet.noneOf(Operator.class);
+    static {
+        for (Operator operator : Operator.values())
+            if (operator.toString().matches("[a-zA-Z_$][a-zA-Z0-9_$]*"))
+                WORDS.add(operator);
+    }
+
+    private final TemplateScanner scanner;
+
+    DirectExpressionParser(TemplateScanner scanner) {
+        this.scanner = scanner;
+    }
+
+    CompilableExpression expression() throws ParseException {
+        return binary(SPECIFIC);
+    }
+
+    /**
+     * Chain of functions joined by the composition operator, as accepted by the filter tag.
+     */
+    CompilableExpression functions() throws ParseException {
+        CompilableExpression first = functionOrVariable();
+        if (first == null) return null;
+        OperationBinary result = new OperationBinary(scanner.position(), first);
+        while (operator(Operator.COMPOSITION) != null) {
+            result.add(Operator.COMPOSITION);
+            result.add(mandatory(functionOrVariable(), "Wrong binary operation syntax"));
+        }
+        return result;
+    }
+
+    Variable variable() {
+        String name = scanner.identifier();
+        if (name == null) return null;
+        Variable variable = new Variable(scanner.position(), name);
+        scanner.spacing();
+        return variable;
+    }
+
+    String identifierAsString() {
+        String name = scanner.identifier();
+        if (name != null) scanner.spacing();
+        return name;
+    }
+
+    ParseException error(String message) {
+        return scanner.error(message);
+    }
+
+    private CompilableExpression binary(int level) throws ParseException {
+        CompilableExpression first = operand(level);
+        if (first == null) return null;
+        OperationBinary result = new OperationBinary(scanner.position(), first);
+        Operator operator;
+        while ((operator = operator(OPERATORS[level])) != null) {
+            result.add(operator);
+            result.add(mandatory(operand(level), "Wrong binary operation syntax"));
+        }
+        return result;
+    }
+
+    private CompilableExpression operand(int level) throws ParseException {
+        switch (level) {
+            case RELATIONAL:
+                CompilableExpression result = unary(Operator.NOT);
+                if (result == null) result = binary(ADDITION);
+                if (result == null) result = unary(Operator.SUB);
+                return result;
+            case MULTIPLICATION:
+                return composition();
+            default:
+                return binary(level + 1);
+        }
+    }
+
+    private CompilableExpression unary(Operator operator) throws ParseException {
+        if (operator(operator) == null) return null;
+        JtwigPosition position = scanner.position();
+        CompilableExpression operand = mandatory(binary(ADDITION), "Wrong unary operator syntax");
+        return new OperationUnary(position, operator, operand);
+    }
+
+    private CompilableExpression composition() throws ParseException {
+        CompilableExpression first = isOperation();
+        if (first == null) return null;
+        OperationBinary result = new OperationBinary(scanner.position(), first);
+        while (operator(Operator.COMPOSITION) != null) {
+            result.add(Operator.COMPOSITION);
+            result.add(mandatory(functionOrVariable(), "Wrong binary operation syntax"));
+        }
+        return result;
+    }
+
+    private CompilableExpression isOperation() throws ParseException {
+        CompilableExpression first = selection();
+        if (first == null) return null;
+        OperationBinary result = new OperationBinary(scanner.position(), first);
+        while (operator(Operator.IS) != null) {
+            int section = scanner.index();
+            result.add(operator(Operator.NOT) != null ? Operator.IS_NOT : Operator.IS);
+            CompilableExpression test = functionWithBrackets();
+            if (test == null) test = functionWithTwoWordsAsName();
+            if (test == null) test = variable();
+            if (test == null) test = keywordAsVariable(JtwigKeyword.NULL);
+            result.add(mandatory(test, section, "Wrong binary operation syntax"));
+        }
+        return result;
+    }
+
+    private CompilableExpression selection() throws ParseException {
+        CompilableExpression first = primary();
+        if (first == null) return null;
+        OperationBinary result = new OperationBinary(scanner.position(), first);
+        while (operator(Operator.SELECTION) != null) {
+            result.add(Operator.SELECTION);
+            CompilableExpression next = functionWithBrackets();
+            if (next == null) next = mapEntry();
+            if (next == null) next = variable();
+            result.add(mandatory(next, "Wrong binary operation syntax"));
+        }
+        return result;
+    }
+
+    private CompilableExpression primary() throws ParseException {
+        CompilableExpression element = elementar();
+        if (element == null) return null;
+        JtwigPosition position = scanner.position();
+        if (!symbol("?")) return element;
+
+        int section = scanner.index();
+        OperationTernary ternary = new OperationTernary(position, element);
+        ternary.withTrueExpression(mandatory(expression(), section, "Wrong ternary operation syntax"));
+        if (!symbol(":")) throw scanner.error(section, "Wrong ternary operation syntax");
+        ternary.withFalseExpression(mandatory(expression(), section, "Wrong ternary operation syntax"));
+        return ternary;
+    }
+
+    private CompilableExpression elementar() throws ParseException {
+        CompilableExpression result = mapEntry();
+        if (result == null) result = functionWithBrackets();
+        if (result == null) result = functionWithoutBrackets();
+        if (result == null) result = map();
+        if (result == null) result = list();
+        if (result == null) result = variable();
+        if (result == null) result = constant();
+        if (result == null) result = parenthesis();
+        return result;
+    }
+
+    private CompilableExpression mapEntry() throws ParseException {
+        int start = scanner.index();
+        Variable variable = variable();
+        if (variable == null) return null;
+        if (!symbol("[")) {
+            scanner.reset(start);
+            return null;
+        }
+        int section = scanner.index();
+        CompilableExpression key = mandatory(expression(), section, "Wrong map selection syntax");
+        if (!symbol("]")) throw scanner.error(section, "Wrong map selection syntax");
+        return new MapSelection(scanner.position(), variable, key);
+    }
+
+    private CompilableExpression functionOrVariable() throws ParseException {
+        CompilableExpression result = functionWithBrackets();
+        if (result == null) result = variable();
+        return result;
+    }
+
+    private CompilableExpression functionWithBrackets() throws ParseException {
+        int start = scanner.index();
+        String name = identifierAsString();
+        if (name == null) return null;
+        if (!symbol("(")) {
+            scanner.reset(start);
+            return null;
+        }
+        int section = scanner.index();
+        FunctionElement function = new FunctionElement(scanner.position(), name);
+        function.add(mandatory(expression(), section, "Wrong function syntax"));
+        while (true) {
+            int argument = scanner.index();
+            if (!symbol(",")) break;
+            CompilableExpression expression = expression();
+            if (expression == null) {
+                scanner.reset(argument);
+                break;
+            }
+            function.add(expression);
+        }
+        if (!symbol(")")) throw scanner.error(section, "Wrong function syntax");
+        return function;
+    }
+
+    private CompilableExpression functionWithoutBrackets() throws ParseException {
+        int start = scanner.index();
+        String name = identifierAsString();
+        if (name == null) return null;
+        CompilableExpression argument = scanner.at("-") ? null : expression();
+        if (argument == null) {
+            scanner.reset(start);
+            return null;
+        }
+        return new FunctionElement(scanner.position(), name).add(argument);
+    }
+
+    private CompilableExpression functionWithTwoWordsAsName() throws ParseException {
+        int start = scanner.index();
+        String first = identifierAsString();
+        String second = first == null ? null : identifierAsString();
+        if (second == null) {
+            scanner.reset(start);
+            return null;
+        }
+        FunctionElement function = new FunctionElement(scanner.position(), first + " " + second);
+        return function.add(mandatory(expression(), "Wrong function named with two words syntax"));
+    }
+
+    private CompilableExpression map() throws ParseException {
+        if (!symbol("{")) return null;
+        int section = scanner.index();
+        ValueMap map = new ValueMap(scanner.position());
+        boolean first = true;
+        while (true) {
+            int entry = scanner.index();
+            if (!first && !symbol(",")) break;
+            String key = identifierAsString();
+            CompilableExpression value = key != null && symbol(":") ? expression() : null;
+            if (value == null) {
+                scanner.reset(entry);
+                break;
+            }
+            map.add(key, value);
+            first = false;
+        }
+        if (!symbol("}")) throw scanner.error(section, "Wrong map syntax");
+        return map;
+    }
+
+    private CompilableExpression list() throws ParseException {
+        CompilableExpression result = comprehensionList();
+        if (result == null) result = enumeratedList();
+        return result;
+    }
+
+    private CompilableExpression comprehensionList() throws ParseException {
+        int start = scanner.index();
+        Constant init = scanner.constant();
+        Constant end = init != null && scanner.consume("..") ? scanner.constant() : null;
+        if (end == null) {
+            scanner.reset(start);
+            return null;
+        }
+        try {
+            ValueList list = ValueList.create(scanner.position(), init, end);
+            scanner.spacing();
+            return list;
+        } catch (ParseBypassException e) {
+            throw scanner.explain(e.getInnerException(), scanner.index());
+        }
+    }
+
+    private CompilableExpression enumeratedList() throws ParseException {
+        if (!symbol("[")) return null;
+        int section = scanner.index();
+        ValueList list = new ValueList(scanner.position());
+        CompilableExpression element = expression();
+        if (element != null) {
+            list.add(element);
+            while (true) {
+                int next = scanner.index();
+                if (!symbol(",")) break;
+                element = expression();
+                if (element == null) {
+                    scanner.reset(next);
+                    break;
+                }
+                list.add(element);
+            }
+        }
+        if (!symbol("]")) throw scanner.error(section, "Wrong list syntax");
+        return list;
+    }
+
+    private CompilableExpression constant() throws ParseException {
+        Constant constant = scanner.constant();
+        if (constant != null) scanner.spacing();
+        return constant;
+    }
+
+    private CompilableExpression parenthesis() throws ParseException {
+        int start = scanner.index();
+        if (!symbol("(")) return null;
+        CompilableExpression expression = expression();
+        if (expression == null || !symbol(")")) {
+            scanner.reset(start);
+            return null;
+        }
+        return expression;
+    }
+
+    private CompilableExpression keywordAsVariable(JtwigKeyword keyword) {
+        if (!scanner.keyword(keyword)) return null;
+        Variable variable = new Variable(scanner.position(), keyword.getKeyword());
+        scanner.spacing();
+        return variable;
+    }
+
+    private boolean symbol(String symbol) {
+        if (!scanner.consume(symbol)) return false;
+        scanner.spacing();
+        return true;
+    }
+
+    /**
+     * Operators never start at a closing delimiter; word operators need a whitespace after them.
+     */
+    private Operator operator(Operator... operators) {
+        if (scanner.atClosing()) return null;
+        int start = scanner.index();
+        for (Operator operator : operators) {
+            String representation = operator.toString();
+            if (!scanner.consume(representation)) continue;
+            if (WORDS.contains(operator)) {
+                if (!scanner.atWhitespace()) {
+                    scanner.reset(start);
+                    continue;
+                }
+                scanner.reset(scanner.index() + 1);
+            }
+            scanner.spacing();
+            return operator;
+        }
+        return null;
+    }
+
+    /**
+     * Rules leave the scanner untouched when they don't match, so by default the section of the
+     * missing part starts at the current index.
+     */
+    private CompilableExpression mandatory(CompilableExpression expression, String message) throws ParseException {
+        return mandatory(expression, scanner.index(), message);
+    }
+
+    private CompilableExpression mandatory(CompilableExpression expression, int section, String message) throws ParseException {
+        if (expression == null) throw scanner.error(section, message);
+        return expression;
+    }
+}
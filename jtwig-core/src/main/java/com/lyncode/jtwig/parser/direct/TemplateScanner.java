@@ -0,0 +1,339 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.parser.direct;
+
+import com.lyncode.jtwig.exception.ParseException;
+import com.lyncode.jtwig.expressions.model.Constant;
+import com.lyncode.jtwig.parser.config.ParserConfiguration;
+import com.lyncode.jtwig.parser.model.JtwigKeyword;
+import com.lyncode.jtwig.parser.model.JtwigPosition;
+import com.lyncode.jtwig.resource.JtwigResource;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Cursor over the template text with the lexical rules shared by the content and expression parsers.
+ * Mirrors the terminals of {@link com.lyncode.jtwig.parser.parboiled.JtwigBasicParser}.
+ */
+class TemplateScanner {
+    private static final Set<String> KEYWORDS = new HashSet<>();
+    static {
+        for (JtwigKeyword keyword : JtwigKeyword.values())
+            KEYWORDS.add(keyword.getKeyword());
+    }
+
+    private final JtwigResource resource;
+    private final ParserConfiguration configuration;
+    private final String input;
+    private final int length;
+    private int[] newlines;
+    private int index = 0;
+
+    TemplateScanner(JtwigResource resource, ParserConfiguration configuration, String input) {
+        this.resource = resource;
+        this.configuration = configuration;
+        this.input = input;
+        this.length = input.length();
+    }
+
+    ParserConfiguration configuration() {
+        return configuration;
+    }
+
+    int index() {
+        return index;
+    }
+
+    void reset(int index) {
+        this.index = index;
+    }
+
+    boolean eoi() {
+        return index >= length;
+    }
+
+    boolean at(String value) {
+        return input.startsWith(value, index);
+    }
+
+    boolean consume(String value) {
+        if (!input.startsWith(value, index)) return false;
+        index += value.length();
+        return true;
+    }
+
+    /**
+     * Consumes the given word when it is not followed by an identifier character.
+     */
+    boolean keyword(String word) {
+        if (!input.startsWith(word, index)) return false;
+        int end = index + word.length();
+        if (end < length && isLetterOrDigit(input.charAt(end))) return false;
+        index = end;
+        return true;
+    }
+
+    boolean keyword(JtwigKeyword keyword) {
+        return keyword(keyword.getKeyword());
+    }
+
+    void spacing() {
+        String beginComment = configuration.getBeginComment();
+        String endComment = configuration.getEndComment();
+        while (index < length) {
+            if (isWhitespace(input.charAt(index))) {
+                index++;
+            } else if (input.startsWith(beginComment, index)) {
+                int end = input.indexOf(endComment, index + beginComment.length());
+                if (end < 0) return;
+                index = end + endComment.length();
+            } else return;
+        }
+    }
+
+    boolean atWhitespace() {
+        return index < length && isWhitespace(input.charAt(index));
+    }
+
+    boolean atOpening() {
+        return at(configuration.getBeginCode())
+                || at(configuration.getBeginOutput())
+                || at(configuration.getBeginComment());
+    }
+
+    boolean atClosing() {
+        return at(configuration.getEndCode())
+                || at(configuration.getEndOutput())
+                || at("-" + configuration.getEndCode())
+                || at("-" + configuration.getEndOutput());
+    }
+
+    String identifier() {
+        if (index >= length || !isLetter(input.charAt(index))) return null;
+        int end = index + 1;
+        while (end < length && isLetterOrDigit(input.charAt(end))) end++;
+        String word = input.substring(index, end);
+        if (KEYWORDS.contains(word)) return null;
+        index = end;
+        return word;
+    }
+
+    /**
+     * Quoted string, without the quotes. Escape sequences are kept as written.
+     */
+    String stringLiteral() {
+        if (index >= length) return null;
+        char quote = input.charAt(index);
+        if (quote != '"' && quote != '\'') return null;
+        int position = index + 1;
+        while (position < length) {
+            char current = input.charAt(position);
+            if (current == quote) {
+                String value = input.substring(index + 1, position);
+                index = position + 1;
+                return value;
+            } else if (current == '\\') {
+                position = escape(position);
+                if (position < 0) return null;
+            } else if (current == '\r' || current == '\n') {
+                return null;
+            } else position++;
+        }
+        return null;
+    }
+
+    Constant constant() throws ParseException {
+        if (keyword(JtwigKeyword.NULL)) return new Constant<>(null);
+        if (keyword(JtwigKeyword.TRUE)) return new Constant<>(true);
+        if (keyword(JtwigKeyword.FALSE)) return new Constant<>(false);
+        if (index < length && isDigit(input.charAt(index))) {
+            int end = digits(index);
+            if (end + 1 < length && input.charAt(end) == '.' && isDigit(input.charAt(end + 1))) {
+                end = digits(end + 1);
+                Constant<Double> constant = new Constant<>(Double.valueOf(input.substring(index, end)));
+                index = end;
+                return constant;
+            }
+            try {
+                Constant<Integer> constant = new Constant<>(Integer.parseInt(input.substring(index, end)));
+                index = end;
+                return constant;
+            } catch (NumberFormatException e) {
+                throw new ParseException(e);
+            }
+        }
+        if (index + 2 < length && input.charAt(index) == '\''
+                && isAsciiLetter(input.charAt(index + 1)) && input.charAt(index + 2) == '\'') {
+            Constant<Character> constant = new Constant<>(input.charAt(index + 1));
+            index += 3;
+            return constant;
+        }
+        String value = stringLiteral();
+        if (value != null) return new Constant<>(value);
+        return null;
+    }
+
+    /**
+     * Raw text up to the next opening delimiter, or up to the position where {@code until} matches.
+     */
+    String text(Terminator until) {
+        int start = index;
+        int position = index;
+        while (position < length) {
+            if (input.charAt(position) == '\\') {
+                int end = escape(position);
+                if (end > 0) {
+                    position = end;
+                    continue;
+                }
+            }
+            index = position;
+            if (until.matches(this)) break;
+            position++;
+        }
+        index = position;
+        if (position == start) return null;
+        return input.substring(start, position);
+    }
+
+    /**
+     * Skips the body of a comment, stopping before its (optionally trimmed) closing delimiter.
+     */
+    boolean commentBody() {
+        String endComment = configuration.getEndComment();
+        int end = input.indexOf(endComment, index);
+        if (end < 0) return false;
+        if (end > index && input.charAt(end - 1) == '-') end--;
+        index = end;
+        return true;
+    }
+
+    JtwigPosition position() {
+        return position(index);
+    }
+
+    ParseException error(String message) {
+        return error(index, message);
+    }
+
+    /**
+     * Error for a mandatory part starting at the given index, which is where parboiled reports it.
+     */
+    ParseException error(int at, String message) {
+        return explain(new ParseException(message), at);
+    }
+
+    /**
+     * Adds the same explanation parboiled gives: the input position, the line and a caret under it.
+     */
+    ParseException explain(ParseException exception, int at) {
+        JtwigPosition position = position(at);
+        StringBuilder explanation = new StringBuilder("Input position (line ")
+                .append(position.getRow()).append(", pos ").append(position.getColumn()).append("):\n")
+                .append(line(position.getRow())).append('\n');
+        for (int i = 1; i < position.getColumn(); i++)
+            explanation.append(' ');
+        exception.setExplanation(explanation.append("^\n\n").toString());
+        return exception;
+    }
+
+    private JtwigPosition position(int at) {
+        if (newlines == null) newlines = newlines(input);
+        int line = Arrays.binarySearch(newlines, at);
+        if (line < 0) line = -(line + 1);
+        int column = at - (line > 0 ? newlines[line - 1] : -1);
+        return new JtwigPosition(resource, line + 1, column);
+    }
+
+    private String line(int row) {
+        int start = row > 1 ? newlines[row - 2] + 1 : 0;
+        int end = row - 1 < newlines.length ? newlines[row - 1] : length;
+        if (end > start && input.charAt(end - 1) == '\r') end--;
+        return input.substring(start, end);
+    }
+
+    private int escape(int position) {
+        int next = position + 1;
+        if (next >= length) return -1;
+        char current = input.charAt(next);
+        if ("btnfr\"'\\".indexOf(current) >= 0) return next + 1;
+        if (isOctal(current)) {
+            if (current <= '3' && isOctal(next + 1) && isOctal(next + 2)) return next + 3;
+            if (isOctal(next + 1)) return next + 2;
+            return next + 1;
+        }
+        if (current == 'u') {
+            int digit = next;
+            while (digit < length && input.charAt(digit) == 'u') digit++;
+            for (int i = 0; i < 4; i++, digit++)
+                if (digit >= length || !isHex(input.charAt(digit))) return -1;
+            return digit;
+        }
+        return -1;
+    }
+
+    private boolean isOctal(int position) {
+        return position < length && isOctal(input.charAt(position));
+    }
+
+    private int digits(int position) {
+        while (position < length && isDigit(input.charAt(position))) position++;
+        return position;
+    }
+
+    private static int[] newlines(String input) {
+        int count = 0;
+        for (int i = 0; i < input.length(); i++)
+            if (input.charAt(i) == '\n') count++;
+        int[] result = new int[count];
+        for (int i = 0, j = 0; i < input.length(); i++)
+            if (input.charAt(i) == '\n') result[j++] = i;
+        return result;
+    }
+
+    private static boolean isOctal(char value) {
+        return value >= '0' && value <= '7';
+    }
+
+    private static boolean isHex(char value) {
+        return isDigit(value) || (value >= 'a' && value <= 'f') || (value >= 'A' && value <= 'F');
+    }
+
+    private static boolean isDigit(char value) {
+        return value >= '0' && value <= '9';
+    }
+
+    private static boolean isAsciiLetter(char value) {
+        return (value >= 'a' && value <= 'z') || (value >= 'A' && value <= 'Z');
+    }
+
+    private static boolean isLetter(char value) {
+        return isAsciiLetter(value) || value == '_' || value == '$';
+    }
+
+    private static boolean isLetterOrDigit(char value) {
+        return isLetter(value) || isDigit(value);
+    }
+
+    private static boolean isWhitespace(char value) {
+        return value == ' ' || value == '\t' || value == '\r' || value == '\n' || value == '\f';
+    }
+
+    interface Terminator {
+        boolean matches(TemplateScanner scanner);
+    }
+}
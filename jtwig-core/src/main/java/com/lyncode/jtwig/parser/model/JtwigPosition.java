@@ -16,13 +16,17 @@ package com.lyncode.jtwig.parser.model;
 
 import com.lyncode.jtwig.resource.JtwigResource;
 
-public class JtwigPosition {
-    private JtwigResource resource;
+import java.io.Serializable;
+
+public class JtwigPosition implements Serializable {
+    private transient JtwigResource resource;
+    private final String description;
     private int row;
     private int column;
 
     public JtwigPosition(JtwigResource resource, int row, int column) {
         this.resource = resource;
+        this.description = String.valueOf(resource);
         this.row = row;
         this.column = column;
     }
@@ -41,6 +45,6 @@ public class JtwigPosition {
 
     @Override
     public String toString() {
-        return resource + " -> Line "+row+", column "+column;
+        return description + " -> Line "+row+", column "+column;
     }
 }
@@ -22,9 +22,12 @@ import org.parboiled.BaseParser;
 import org.parboiled.Rule;
 
 public class JtwigBaseParser<V> extends BaseParser<V> {
-    final JtwigResource resource;
+    JtwigResource resource;
 
-    public JtwigBaseParser(JtwigResource resource) {
+    /**
+     * Parser instances are reused across runs, the resource being parsed is per run state.
+     */
+    public void setResource(JtwigResource resource) {
         this.resource = resource;
     }
 
@@ -46,7 +49,7 @@ public class JtwigBaseParser<V> extends BaseParser<V> {
 
 
 
-    boolean throwException(ParseException exception) throws ParseBypassException {
+    public boolean throwException(ParseException exception) throws ParseBypassException {
         throw new ParseBypassException(exception);
     }
 
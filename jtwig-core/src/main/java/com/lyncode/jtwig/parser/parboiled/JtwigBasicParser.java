@@ -70,6 +70,18 @@ public class JtwigBasicParser extends BaseParser<String> {
         return String(parserConfiguration.getEndComment());
     }
 
+    public Rule textRun() {
+        return new TextRunMatcher(
+                parserConfiguration.getBeginCode(),
+                parserConfiguration.getBeginOutput(),
+                parserConfiguration.getBeginComment()
+        );
+    }
+
+    public Rule textRunUntilCode() {
+        return new TextRunMatcher(parserConfiguration.getBeginCode());
+    }
+
     @MemoMismatches
     public Rule anyKeyword() {
         return Sequence(
@@ -47,19 +47,26 @@ import static org.parboiled.Parboiled.createParser;
 
 public class JtwigContentParser extends JtwigBaseParser<Compilable> {
     public static JtwigContentParser newParser(
-            JtwigResource resource,
             ParserConfiguration configuration,
             List<Class<? extends AddonParser>> contentAddons
 
     ) {
-        return createParser(JtwigContentParser.class, resource, configuration, contentAddons);
+        return createParser(JtwigContentParser.class, configuration, contentAddons);
     }
 
     public static Compilable parse(JtwigContentParser parser, JtwigResource input) throws ParseException {
+        try {
+            return parse(parser, input, FileUtils.readAllText(input.retrieve(), Charset.defaultCharset()));
+        } catch (ResourceException e) {
+            throw new ParseException(e);
+        }
+    }
+
+    public static Compilable parse(JtwigContentParser parser, JtwigResource input, String content) throws ParseException {
+        parser.setResource(input);
         try {
             ReportingParseRunner<Compilable> runner = new ReportingParseRunner<>(parser.start());
-            ParsingResult<Compilable> result = runner.run(
-                    FileUtils.readAllText(input.retrieve(), Charset.defaultCharset()));
+            ParsingResult<Compilable> result = runner.run(content);
             return result.resultValue;
         } catch (ParserRuntimeException e) {
             if (e.getCause() instanceof ParseBypassException) {
@@ -69,8 +76,6 @@ public class JtwigContentParser extends JtwigBaseParser<Compilable> {
             } else {
                 throw new ParseException(e);
             }
-        } catch (ResourceException e) {
-            throw new ParseException(e);
         }
     }
 
@@ -82,11 +87,10 @@ public class JtwigContentParser extends JtwigBaseParser<Compilable> {
     List<Class<? extends BaseParser>> contentAddons;
     ParserConfiguration configuration;
 
-    public JtwigContentParser(JtwigResource resource, ParserConfiguration configuration, List<Class<? extends BaseParser>> contentAddons) {
-        super(resource);
+    public JtwigContentParser(ParserConfiguration configuration, List<Class<? extends BaseParser>> contentAddons) {
         basicParser = createParser(JtwigBasicParser.class, configuration);
         tagPropertyParser = createParser(JtwigTagPropertyParser.class, configuration);
-        expressionParser = createParser(JtwigExpressionParser.class, resource, configuration);
+        expressionParser = createParser(JtwigExpressionParser.class, configuration);
 
         this.contentAddons = contentAddons;
         this.configuration = configuration;
@@ -94,10 +98,18 @@ public class JtwigContentParser extends JtwigBaseParser<Compilable> {
         contentAddonParsers = new AddonParser[contentAddons.size()];
 
         for (int i = 0; i < contentAddons.size(); i++) {
-            contentAddonParsers[i] = (AddonParser) createParser(contentAddons.get(i), resource, configuration);
+            contentAddonParsers[i] = (AddonParser) createParser(contentAddons.get(i), configuration);
         }
     }
 
+    @Override
+    public void setResource(JtwigResource resource) {
+        super.setResource(resource);
+        expressionParser.setResource(resource);
+        for (AddonParser addonParser : contentAddonParsers)
+            addonParser.setResource(resource);
+    }
+
     public Rule start() {
         return FirstOf(
                 extendTemplate(),
@@ -126,7 +138,7 @@ public class JtwigContentParser extends JtwigBaseParser<Compilable> {
                                         basicParser.spacing(),
                                         EOI
                                 ),
-                                new ParseException("Wrong include syntax")
+                                new ParseException("Wrong extends syntax")
                         )
                 )
         );
@@ -327,27 +339,8 @@ public class JtwigContentParser extends JtwigBaseParser<Compilable> {
 
     Rule text() {
         return Sequence(
-                push(new Text.Builder()),
-                OneOrMore(
-                        FirstOf(
-                                Sequence(
-                                        basicParser.escape(),
-                                        action(peek(Text.Builder.class).append(match()))
-                                ),
-                                Sequence(
-                                        TestNot(
-                                                FirstOf(
-                                                        basicParser.openCode(),
-                                                        basicParser.openOutput(),
-                                                        basicParser.openComment()
-                                                )
-                                        ),
-                                        ANY,
-                                        action(peek(Text.Builder.class).append(match()))
-                                )
-                        )
-                ).suppressSubnodes(),
-                push(pop(Text.Builder.class).build())
+                basicParser.textRun(),
+                push(new Text(match()))
         );
     }
 
@@ -378,23 +371,18 @@ public class JtwigContentParser extends JtwigBaseParser<Compilable> {
 
     Rule text(Rule until) {
         return Sequence(
-                push(new Text.Builder()),
                 OneOrMore(
                         FirstOf(
-                                Sequence(
-                                        basicParser.escape(),
-                                        action(peek(Text.Builder.class).append(match()))
-                                ),
+                                basicParser.textRunUntilCode(),
                                 Sequence(
                                         TestNot(
                                                 until
                                         ),
-                                        ANY,
-                                        action(peek(Text.Builder.class).append(match()))
+                                        ANY
                                 )
                         )
                 ).suppressSubnodes(),
-                push(pop(Text.Builder.class).build())
+                push(new Text(match()))
         );
     }
 
@@ -21,7 +21,6 @@ import com.lyncode.jtwig.expressions.model.*;
 import com.lyncode.jtwig.parser.config.ParserConfiguration;
 import com.lyncode.jtwig.parser.model.JtwigKeyword;
 import com.lyncode.jtwig.parser.model.JtwigSymbol;
-import com.lyncode.jtwig.resource.JtwigResource;
 import org.parboiled.Rule;
 import org.parboiled.annotations.SuppressNode;
 
@@ -36,8 +35,7 @@ public class JtwigExpressionParser extends JtwigBaseParser<CompilableExpression>
     final JtwigConstantParser constants;
     final ParserConfiguration config;
 
-    public JtwigExpressionParser(JtwigResource resource, ParserConfiguration parserConfiguration) {
-        super(resource);
+    public JtwigExpressionParser(ParserConfiguration parserConfiguration) {
         basic = createParser(JtwigBasicParser.class, parserConfiguration);
         constants = createParser(JtwigConstantParser.class, parserConfiguration);
         config = parserConfiguration;
@@ -209,7 +207,7 @@ public class JtwigExpressionParser extends JtwigBaseParser<CompilableExpression>
                                 expression(),
                                 action(peek(1, OperationTernary.class).withFalseExpression(pop()))
                         ),
-                        new ParseException("Wring ternary operation syntax")
+                        new ParseException("Wrong ternary operation syntax")
                 )
         );
     }
@@ -241,7 +239,7 @@ public class JtwigExpressionParser extends JtwigBaseParser<CompilableExpression>
                                 symbol(CLOSE_BRACKET),
                                 push(new MapSelection(currentPosition(), pop(1, Variable.class), pop()))
                         ),
-                        new ParseException("Wring map selection syntax")
+                        new ParseException("Wrong map selection syntax")
                 )
         );
     }
@@ -436,7 +434,7 @@ public class JtwigExpressionParser extends JtwigBaseParser<CompilableExpression>
         );
     }
 
-    boolean throwException(ParseException exception) throws ParseBypassException {
+    public boolean throwException(ParseException exception) throws ParseBypassException {
         throw new ParseBypassException(exception);
     }
 
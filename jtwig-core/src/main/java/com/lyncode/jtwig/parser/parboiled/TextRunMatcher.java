@@ -0,0 +1,120 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.parser.parboiled;
+
+import org.parboiled.MatcherContext;
+import org.parboiled.buffers.InputBuffer;
+import org.parboiled.matchers.CustomMatcher;
+import org.parboiled.support.Chars;
+
+/**
+ * Matches a run of literal text up to (excluding) the next occurrence of any of the
+ * given terminators, scanning the input buffer directly instead of testing the
+ * terminator rules character by character. Escapes are consumed as a whole, as in
+ * {@link JtwigBasicParser#escape()}.
+ */
+class TextRunMatcher extends CustomMatcher {
+    private final String[] terminators;
+
+    TextRunMatcher(String... terminators) {
+        super("TextRun");
+        this.terminators = terminators;
+    }
+
+    @Override
+    public boolean match(MatcherContext context) {
+        InputBuffer buffer = context.getInputBuffer();
+        int start = context.getCurrentIndex();
+        int position = start;
+        while (true) {
+            char current = buffer.charAt(position);
+            if (current == Chars.EOI) break;
+            if (current == '\\') {
+                int end = escape(buffer, position);
+                if (end > 0) {
+                    position = end;
+                    continue;
+                }
+            }
+            if (atTerminator(buffer, position)) break;
+            position++;
+        }
+        if (position == start) return false;
+        context.advanceIndex(position - start);
+        context.createNode();
+        return true;
+    }
+
+    private boolean atTerminator(InputBuffer buffer, int position) {
+        for (String terminator : terminators) {
+            if (startsWith(buffer, position, terminator)) return true;
+        }
+        return false;
+    }
+
+    private static boolean startsWith(InputBuffer buffer, int position, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (buffer.charAt(position + i) != value.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private static int escape(InputBuffer buffer, int position) {
+        int next = position + 1;
+        char current = buffer.charAt(next);
+        if ("btnfr\"'\\".indexOf(current) >= 0) return next + 1;
+        if (isOctal(current)) {
+            if (current <= '3' && isOctal(buffer.charAt(next + 1)) && isOctal(buffer.charAt(next + 2))) return next + 3;
+            if (isOctal(buffer.charAt(next + 1))) return next + 2;
+            return next + 1;
+        }
+        if (current == 'u') {
+            int digit = next;
+            while (buffer.charAt(digit) == 'u') digit++;
+            for (int end = digit + 4; digit < end; digit++)
+                if (!isHex(buffer.charAt(digit))) return -1;
+            return digit;
+        }
+        return -1;
+    }
+
+    private static boolean isOctal(char value) {
+        return value >= '0' && value <= '7';
+    }
+
+    private static boolean isHex(char value) {
+        return (value >= '0' && value <= '9') || (value >= 'a' && value <= 'f') || (value >= 'A' && value <= 'F');
+    }
+
+    @Override
+    public boolean isSingleCharMatcher() {
+        return false;
+    }
+
+    @Override
+    public boolean canMatchEmpty() {
+        return false;
+    }
+
+    @Override
+    public boolean isStarterChar(char c) {
+        return c != Chars.EOI;
+    }
+
+    @Override
+    public char getStarterChar() {
+        return ' ';
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.render;
+
+import com.lyncode.jtwig.content.model.compilable.LoopControl;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per render values of the variables with a slot assigned at compile time. Assigning them
+ * only writes the frame, the render context reads it before its overlays and the model map,
+ * and hands the final values to the caller's context when the render ends.
+ */
+public class Frame {
+    public static final Object UNSET = new Object();
+
+    /**
+     * Assigns a template variable in its slot or, when it has none (or the render has no
+     * frame), in the model.
+     */
+    public static void assign(RenderContext context, int slot, String name, Object value) {
+        Frame frame = context.frame();
+        if (slot >= 0 && frame != null)
+            frame.set(slot, name, value);
+        else
+            context.model().set(name, value);
+    }
+
+    private final Map<String, Integer> slots = new HashMap<>();
+    private Object[] values = new Object[0];
+    private String[] names = new String[0];
+
+    /**
+     * Copy for a fork, with its own loop states so the loops going on here don't change them.
+     */
+    public Frame copy() {
+        Frame copy = new Frame();
+        copy.slots.putAll(slots);
+        copy.values = values.clone();
+        copy.names = names.clone();
+        for (int slot = 0; slot < copy.values.length; slot++) {
+            if (copy.values[slot] instanceof LoopControl.Loop)
+                copy.values[slot] = ((LoopControl.Loop) copy.values[slot]).copy();
+        }
+        return copy;
+    }
+
+    public Object get(int slot) {
+        return slot < values.length ? values[slot] : UNSET;
+    }
+
+    public Object get(String name) {
+        Integer slot = slots.get(name);
+        return slot == null ? UNSET : values[slot];
+    }
+
+    public void set(int slot, String name, Object value) {
+        if (slot >= values.length) {
+            int length = values.length;
+            values = Arrays.copyOf(values, Math.max(slot + 1, length * 2));
+            names = Arrays.copyOf(names, values.length);
+            Arrays.fill(values, length, values.length, UNSET);
+        }
+        if (names[slot] == null) {
+            names[slot] = name;
+            slots.put(name, slot);
+        }
+        values[slot] = value;
+    }
+
+    /**
+     * Replaces the value of a variable already assigned in this frame, returns false when there is none.
+     */
+    public boolean replace(String name, Object value) {
+        Integer slot = slots.get(name);
+        if (slot == null) return false;
+        values[slot] = value;
+        return true;
+    }
+
+    public boolean isEmpty() {
+        return slots.isEmpty();
+    }
+
+    /**
+     * Assigned variables and their current values, in slot order.
+     */
+    public Map<String, Object> values() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (int slot = 0; slot < names.length; slot++) {
+            if (names[slot] != null)
+                result.put(names[slot], values[slot]);
+        }
+        return result;
+    }
+}
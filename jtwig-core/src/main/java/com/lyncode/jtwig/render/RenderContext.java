@@ -45,10 +45,18 @@ public class RenderContext {
         renderStream.write(bytes);
     }
 
+    public void write(String value) throws IOException {
+        renderStream.write(value.getBytes(configuration.charset()));
+    }
+
     public JtwigContext model() {
         return context;
     }
 
+    public Frame frame() {
+        return context.frame();
+    }
+
     public RenderStream renderStream () {
         return this.renderStream;
     }
@@ -66,6 +74,6 @@ public class RenderContext {
     }
 
     private RenderContext fork() throws IOException {
-        return new RenderContext(configuration, context, renderStream.fork());
+        return new RenderContext(configuration, context.fork(), renderStream.fork());
     }
 }
@@ -14,8 +14,11 @@
 
 package com.lyncode.jtwig.render.config;
 
+import java.nio.charset.Charset;
+
 public class RenderConfiguration {
     private boolean strictVariables = false;
+    private Charset charset = Charset.defaultCharset();
 
     public boolean strictVariables() {
         return strictVariables;
@@ -25,4 +28,23 @@ public class RenderConfiguration {
         this.strictVariables = value;
         return this;
     }
+
+    public Charset charset() {
+        return charset;
+    }
+
+    /**
+     * Charset of the rendered output. Static text is encoded with it once, when the template
+     * is compiled, so it should be set before the first render.
+     */
+    public RenderConfiguration charset(Charset value) {
+        this.charset = value;
+        return this;
+    }
+
+    public RenderConfiguration copy() {
+        return new RenderConfiguration()
+                .strictVariables(strictVariables)
+                .charset(charset);
+    }
 }
@@ -17,10 +17,14 @@ package com.lyncode.jtwig.resource;
 import com.lyncode.jtwig.exception.ResourceException;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
 
 public class ClasspathJtwigResource implements JtwigResource {
     private String resource;
+    private final ContentHash.Cached contentHash = new ContentHash.Cached();
 
     public ClasspathJtwigResource(String resource) {
         this.resource = resource.startsWith(File.separator) ? resource.substring(1) : resource;
@@ -37,6 +41,32 @@ public class ClasspathJtwigResource implements JtwigResource {
         return new ClasspathJtwigResource(relativeFile.getPath());
     }
 
+    @Override
+    public long lastModified() throws ResourceException {
+        URL url = this.getClass().getClassLoader().getResource(this.resource);
+        if (url == null) return 0;
+        try {
+            if ("file".equals(url.getProtocol()))
+                return new File(url.toURI()).lastModified();
+            long lastModified = url.openConnection().getLastModified();
+            return lastModified != 0 ? lastModified : contentHash.of(url);
+        } catch (URISyntaxException | IOException e) {
+            throw new ResourceException(e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return resource.equals(((ClasspathJtwigResource) o).resource);
+    }
+
+    @Override
+    public int hashCode() {
+        return resource.hashCode();
+    }
+
     @Override
     public String toString() {
         return resource;
@@ -0,0 +1,32 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.resource;
+
+public class ClasspathJtwigResourceLoader implements JtwigResourceLoader {
+    private final String prefix;
+
+    public ClasspathJtwigResourceLoader() {
+        this("");
+    }
+
+    public ClasspathJtwigResourceLoader(String prefix) {
+        this.prefix = prefix;
+    }
+
+    @Override
+    public JtwigResource load(String name) {
+        return new ClasspathJtwigResource(prefix + name);
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.resource;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import com.lyncode.jtwig.exception.ResourceException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+public final class ContentHash {
+    public static final long CHECK_INTERVAL = TimeUnit.SECONDS.toMillis(2);
+
+    private ContentHash() {}
+
+    public static long of (InputStream input) throws ResourceException {
+        if (input == null) return 0;
+        try {
+            long hash = Hashing.murmur3_128().hashBytes(ByteStreams.toByteArray(input)).asLong();
+            return hash == 0 ? 1 : hash;
+        } catch (IOException e) {
+            throw new ResourceException(e);
+        } finally {
+            try {
+                input.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Hash of a resource that is read again at most once per check interval, so
+     * freshness checks on sources without a timestamp don't read the whole content
+     * on every call.
+     */
+    public static class Cached {
+        private final long interval;
+        private volatile long hash;
+        private volatile long checkedAt;
+
+        public Cached() {
+            this(CHECK_INTERVAL);
+        }
+
+        public Cached(long interval) {
+            this.interval = interval;
+        }
+
+        public long of (URL url) throws ResourceException {
+            long now = System.currentTimeMillis();
+            if (hash != 0 && now - checkedAt < interval)
+                return hash;
+            try {
+                hash = ContentHash.of(url.openStream());
+            } catch (IOException e) {
+                throw new ResourceException(e);
+            }
+            checkedAt = now;
+            return hash;
+        }
+    }
+}
@@ -42,6 +42,23 @@ public class FileJtwigResource implements JtwigResource {
         return new FileJtwigResource(new File(file.getParentFile(), relativePath));
     }
 
+    @Override
+    public long lastModified() {
+        return file.lastModified();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return file.equals(((FileJtwigResource) o).file);
+    }
+
+    @Override
+    public int hashCode() {
+        return file.hashCode();
+    }
+
     @Override
     public String toString() {
         return file.getPath();
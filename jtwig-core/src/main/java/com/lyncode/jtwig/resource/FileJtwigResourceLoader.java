@@ -0,0 +1,30 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.resource;
+
+import java.io.File;
+
+public class FileJtwigResourceLoader implements JtwigResourceLoader {
+    private final File root;
+
+    public FileJtwigResourceLoader(File root) {
+        this.root = root;
+    }
+
+    @Override
+    public JtwigResource load(String name) {
+        return new FileJtwigResource(new File(root, name));
+    }
+}
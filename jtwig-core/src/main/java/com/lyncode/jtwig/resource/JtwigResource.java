@@ -21,4 +21,12 @@ import java.io.InputStream;
 public interface JtwigResource {
     InputStream retrieve () throws ResourceException;
     JtwigResource resolve (String relativePath) throws ResourceException;
+
+    /**
+     * Freshness stamp of the underlying source: the modification time where the source
+     * exposes one, a content hash otherwise (re-read at most every {@link ContentHash#CHECK_INTERVAL}
+     * milliseconds), or 0 if the source never changes.
+     * Cached compilations are invalidated whenever the returned value changes.
+     */
+    long lastModified () throws ResourceException;
 }
@@ -36,6 +36,11 @@ public class StringJtwigResource implements JtwigResource {
         throw new ResourceException("Cannot resolve relative resources in a String resource");
     }
 
+    @Override
+    public long lastModified() {
+        return 0;
+    }
+
     @Override
     public String toString() {
         return "String Source";
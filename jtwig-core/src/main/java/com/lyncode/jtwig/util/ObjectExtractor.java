@@ -21,6 +21,8 @@ import javax.annotation.Nullable;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static com.lyncode.jtwig.types.Undefined.UNDEFINED;
 import static org.hamcrest.text.IsEqualIgnoringCase.equalToIgnoringCase;
@@ -28,6 +30,18 @@ import static org.reflections.ReflectionUtils.getAllFields;
 import static org.reflections.ReflectionUtils.getAllMethods;
 
 public class ObjectExtractor {
+    private static final String[] PREFIXES = new String[]{
+            "get",
+            "is",
+            "has"
+    };
+    private static final ClassValue<ConcurrentMap<Property, Accessors>> accessors = new ClassValue<ConcurrentMap<Property, Accessors>>() {
+        @Override
+        protected ConcurrentMap<Property, Accessors> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
     private Object context;
 
     public ObjectExtractor(Object context) {
@@ -35,21 +49,18 @@ public class ObjectExtractor {
     }
 
     public Object extract (final String name, Object... parameters) throws ExtractException {
-        List<Callable> callables = new ArrayList<Callable>();
+        Accessors resolved = accessors(name, parameters.length);
 
         if (parameters.length == 0) {
-            callables.add(tryField());
+            Result<Object> result = resolved.readField(context);
+            if (result.hasResult()) return result.getResult();
         }
 
-        callables.add(tryMethod());
+        Result<Object> result = resolved.invokeMethod(context, parameters);
+        if (result.hasResult()) return result.getResult();
 
         if (knownType(context))
-            callables.add(tryKnownType());
-
-        for (Callable callable : callables) {
-            Result<Object> result = callable.execute(name, parameters);
-            if (result.hasResult()) return result.getResult();
-        }
+            return extractKnownType(name, parameters);
 
         return UNDEFINED;
     }
@@ -58,15 +69,6 @@ public class ObjectExtractor {
         return context;
     }
 
-    private Callable tryKnownType() {
-        return new Callable() {
-            @Override
-            public Result<Object> execute(String name, Object... args) throws ExtractException {
-                return new Result<Object>(extractKnownType(name, args));
-            }
-        };
-    }
-
     private Object extractKnownType(String name, Object... parameters) {
         if ((context instanceof Map) && parameters.length == 0) {
             return ((Map) context).get(name);
@@ -80,24 +82,48 @@ public class ObjectExtractor {
         else return false;
     }
 
-    private Callable tryField() {
-        return new Callable() {
-            @Override
-            public Result<Object> execute(String name, Object... args) {
-                Set<Field> fields = getAllFields(context.getClass(), fieldPredicate(name));
-                if (!fields.isEmpty()) {
-                    Iterator<Field> iterator = fields.iterator();
-                    while (iterator.hasNext()) {
-                        try {
-                            return new Result<Object>(iterator.next().get(context));
-                        } catch (IllegalAccessException e) {
-                            // do nothing
-                        }
-                    }
-                    return new Result<Object>();
-                } else return new Result<Object>();
+    /**
+     * Fields and methods matching a property are looked up once per class, name and
+     * number of arguments (also when there are none). They are kept with the class, so
+     * they go away together with its class loader.
+     */
+    private Accessors accessors(String name, int arity) {
+        ConcurrentMap<Property, Accessors> properties = accessors.get(context.getClass());
+        Property key = new Property(name, arity);
+        Accessors result = properties.get(key);
+        if (result == null) {
+            result = new Accessors(arity == 0 ? readableFields(name) : Collections.<Accessor>emptyList(), methods(name, arity));
+            Accessors existing = properties.putIfAbsent(key, result);
+            if (existing != null) result = existing;
+        }
+        return result;
+    }
+
+    private List<Accessor> readableFields(String name) {
+        List<Accessor> result = new ArrayList<>();
+        for (Field field : getAllFields(context.getClass(), fieldPredicate(name))) {
+            try {
+                field.get(context);
+                result.add(new FieldAccessor(field));
+            } catch (IllegalAccessException e) {
+                // not readable from here, whatever the instance
             }
-        };
+        }
+        return result;
+    }
+
+    private List<Accessor> methods(String name, int arity) {
+        Set<Method> methods = getAllMethods(context.getClass(), methodMatcher(equalToIgnoringCase(name), arity));
+        int i = 0;
+        while (methods.isEmpty() && i < PREFIXES.length) {
+            methods = getAllMethods(context.getClass(), methodMatcher(equalToIgnoringCase(PREFIXES[i++] + name), arity));
+        }
+
+        List<Accessor> result = new ArrayList<>();
+        for (Method method : methods) {
+            result.add(new MethodAccessor(method));
+        }
+        return result;
     }
 
     private Predicate<Field> fieldPredicate(final String name) {
@@ -112,43 +138,6 @@ public class ObjectExtractor {
         };
     }
 
-    private Callable tryMethod() {
-        return new Callable() {
-            @Override
-            public Result<Object> execute(final String name, Object... args) throws ExtractException {
-                String[] prefixes = new String[]{
-                        "get",
-                        "is",
-                        "has"
-                };
-
-                Set<Method> methods = getAllMethods(context.getClass(), methodMatcher(equalToIgnoringCase(name), args.length));
-                int i = 0;
-                while (methods.isEmpty() && i < prefixes.length) {
-                    methods = getAllMethods(context.getClass(), methodMatcher(equalToIgnoringCase(prefixes[i++] + name), args.length));
-                }
-
-                if (methods.isEmpty()) return new Result<>();
-                else {
-                    Iterator<Method> iterator = methods.iterator();
-                    Exception thrown = null;
-                    while (iterator.hasNext()) {
-                        try {
-                            return new Result<>(iterator.next().invoke(context, args));
-                        } catch (Exception e) {
-                            thrown = e;
-                        }
-                    }
-
-                    if (thrown != null)
-                        throw new ExtractException(thrown);
-                }
-
-                return new Result<>();
-            }
-        };
-    }
-
     private Predicate<Method> methodMatcher(final Matcher<? super String> nameMatcher, final int numberOfArguments) {
         return new Predicate<Method>() {
             @Override
@@ -166,8 +155,93 @@ public class ObjectExtractor {
         return context == null || context == UNDEFINED;
     }
 
-    private static interface Callable {
-        Result<Object> execute (String name, Object... args) throws ExtractException;
+    private static class Property {
+        private final String name;
+        private final int arity;
+
+        private Property(String name, int arity) {
+            this.name = name;
+            this.arity = arity;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Property)) return false;
+            Property that = (Property) o;
+            return arity == that.arity && name.equals(that.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * name.hashCode() + arity;
+        }
+    }
+
+    private static interface Accessor {
+        Object access(Object context, Object... args) throws Exception;
+    }
+
+    private static class FieldAccessor implements Accessor {
+        private final Field field;
+
+        private FieldAccessor(Field field) {
+            this.field = field;
+        }
+
+        @Override
+        public Object access(Object context, Object... args) throws Exception {
+            return field.get(context);
+        }
+    }
+
+    private static class MethodAccessor implements Accessor {
+        private final Method method;
+
+        private MethodAccessor(Method method) {
+            this.method = method;
+        }
+
+        @Override
+        public Object access(Object context, Object... args) throws Exception {
+            return method.invoke(context, args);
+        }
+    }
+
+    private static class Accessors {
+        private final List<Accessor> fields;
+        private final List<Accessor> methods;
+
+        private Accessors(List<Accessor> fields, List<Accessor> methods) {
+            this.fields = fields;
+            this.methods = methods;
+        }
+
+        private Result<Object> readField(Object context) throws ExtractException {
+            for (Accessor field : fields) {
+                try {
+                    return new Result<>(field.access(context));
+                } catch (Exception e) {
+                    throw new ExtractException(e);
+                }
+            }
+            return new Result<>();
+        }
+
+        private Result<Object> invokeMethod(Object context, Object... args) throws ExtractException {
+            Exception thrown = null;
+            for (Accessor method : methods) {
+                try {
+                    return new Result<>(method.access(context, args));
+                } catch (Exception e) {
+                    thrown = e;
+                }
+            }
+
+            if (thrown != null)
+                throw new ExtractException(thrown);
+            return new Result<>();
+        }
     }
 
     private static class Result<T> {
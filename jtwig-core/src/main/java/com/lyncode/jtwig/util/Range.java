@@ -0,0 +1,104 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.util;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list of consecutive integers or characters, both ends included, in the order
+ * given (ascending or descending). Elements are computed on access, so size, lookup and
+ * membership do not depend on the length of the range.
+ */
+public class Range<T> extends AbstractList<T> implements RandomAccess, Serializable {
+    public static Range<Integer> integers(int start, int end) {
+        return new Range<>(start, end, false);
+    }
+
+    public static Range<Character> characters(char start, char end) {
+        return new Range<>(start, end, true);
+    }
+
+    private final int start;
+    private final int end;
+    private final boolean characters;
+
+    private Range(int start, int end, boolean characters) {
+        this.start = start;
+        this.end = end;
+        this.characters = characters;
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(Integer.MAX_VALUE, Math.abs((long) end - start) + 1);
+    }
+
+    /**
+     * Primitive value of the element at the given index (the character code for character ranges).
+     */
+    public int valueAt(int index) {
+        if (index < 0 || index >= size())
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        return start <= end ? start + index : start - index;
+    }
+
+    /**
+     * Primitive value of the first element, the next ones follow adding {@link #step()}.
+     */
+    public int first() {
+        return start;
+    }
+
+    public int step() {
+        return start <= end ? 1 : -1;
+    }
+
+    /**
+     * Element for the given primitive value.
+     */
+    @SuppressWarnings("unchecked")
+    public T element(int value) {
+        if (characters) return (T) Character.valueOf((char) value);
+        return (T) Integer.valueOf(value);
+    }
+
+    @Override
+    public T get(int index) {
+        return element(valueAt(index));
+    }
+
+    @Override
+    public boolean contains(Object item) {
+        return indexOf(item) >= 0;
+    }
+
+    @Override
+    public int indexOf(Object item) {
+        int value;
+        if (characters && item instanceof Character) value = (Character) item;
+        else if (!characters && item instanceof Integer) value = (Integer) item;
+        else return -1;
+
+        if (value < Math.min(start, end) || value > Math.max(start, end)) return -1;
+        return Math.abs(value - start);
+    }
+
+    @Override
+    public int lastIndexOf(Object item) {
+        return indexOf(item);
+    }
+}
@@ -82,4 +82,10 @@ public class ForExpressionTest {
         context.withModelAttribute("map", value);
         assertThat(template.output(context), is("one = 1|two = 2|three = 3|"));
     }
+
+    @Test
+    public void forLoopOverComprehension () throws ParseException, CompileException, RenderException {
+        JtwigTemplate template = new JtwigTemplate("{% for i in 3..1 %}{{ i }}{% if not loop.last %},{% endif %}{% endfor %}");
+        assertThat(template.output(new JtwigContext()), is("3,2,1"));
+    }
 }
@@ -38,4 +38,19 @@ public class ListExpressionTest extends AbstractJtwigTest {
         JtwigContext context = new JtwigContext();
         assertThat(template.output(context), is("abc"));
     }
+
+    @Test
+    public void descendingListByComprehension () throws ParseException, CompileException, RenderException {
+        JtwigTemplate template = new JtwigTemplate("{{ 5..1 | join(',') }}{{ 'c'..'a' | join }}");
+        JtwigContext context = new JtwigContext();
+        assertThat(template.output(context), is("5,4,3,2,1cba"));
+    }
+
+    @Test
+    public void membershipInComprehension () throws ParseException, CompileException, RenderException {
+        JtwigTemplate template = new JtwigTemplate("{{ value in 1..100000 }} {{ 0 in 1..100000 }} {{ 'b' in 'a'..'c' }}");
+        JtwigContext context = new JtwigContext();
+        context.withModelAttribute("value", 500);
+        assertThat(template.output(context), is("true false true"));
+    }
 }
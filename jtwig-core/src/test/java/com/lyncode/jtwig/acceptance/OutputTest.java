@@ -41,4 +41,10 @@ public class OutputTest {
         JtwigContext context = new JtwigContext();
         assertThat(template.output(context), is("1,2,3"));
     }
+
+    @Test
+    public void shouldKeepStaticTextAroundTags () throws ParseException, CompileException, RenderException {
+        JtwigTemplate template = new JtwigTemplate("<p>{ a } % \\n \\{{ 'b' }} {</p>{# c #}{% if true %}\\u0041{% endif %}");
+        assertThat(template.output(new JtwigContext()), is("<p>{ a } % \\n \\b {</p>\\u0041"));
+    }
 }
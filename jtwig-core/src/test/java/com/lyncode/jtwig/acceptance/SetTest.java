@@ -21,6 +21,7 @@ import com.lyncode.jtwig.exception.ParseException;
 import com.lyncode.jtwig.exception.RenderException;
 import org.junit.Test;
 
+import static java.util.Arrays.asList;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 
@@ -31,4 +32,20 @@ public class SetTest extends AbstractJtwigTest {
         JtwigContext context = new JtwigContext();
         assertThat(template.output(context), is("1"));
     }
+
+    @Test
+    public void variableReadBeforeItsSetInLoopSeesPreviousIteration() throws ParseException, CompileException, RenderException {
+        JtwigTemplate template = new JtwigTemplate("{% for i in l %}{{ x }}{% set x = i %}{% endfor %}|{{ x }}");
+        JtwigContext context = new JtwigContext();
+        context.withModelAttribute("l", asList(1, 2, 3));
+        assertThat(template.output(context), is("undefined12|3"));
+    }
+
+    @Test
+    public void loopVariablesAreVisibleThroughModel() throws ParseException, CompileException, RenderException {
+        JtwigTemplate template = new JtwigTemplate("{% for i in l %}{{ model.i }}{% endfor %}");
+        JtwigContext context = new JtwigContext();
+        context.withModelAttribute("l", asList(1, 2, 3));
+        assertThat(template.output(context), is("123"));
+    }
 }
@@ -16,6 +16,7 @@
 package com.lyncode.jtwig.acceptance.addons.concurrent;
 
 import com.lyncode.jtwig.JtwigContext;
+import com.lyncode.jtwig.JtwigModelMap;
 import com.lyncode.jtwig.JtwigTemplate;
 import com.lyncode.jtwig.acceptance.addons.AbstractAddonTest;
 import org.junit.Test;
@@ -59,6 +60,32 @@ public class ConcurrentTest extends AbstractAddonTest {
         assertThat(template.output(context), is("abcd"));
     }
 
+    @Test
+    public void concurrentInsideLoopKeepsIterationVariables() throws Exception {
+        JtwigTemplate template = new JtwigTemplate("{% for item in list %}{% concurrent %}{{ loop.index }}{{ item }} {% endconcurrent %}{% endfor %}");
+        JtwigContext context = new JtwigContext()
+                .withModelAttribute("list", asList("a", "b", "c", "d"));
+        assertThat(template.output(context), is("0a 1b 2c 3d "));
+    }
+
+    @Test
+    public void concurrentInsideRangeLoopKeepsIterationVariables() throws Exception {
+        JtwigTemplate template = new JtwigTemplate("{% for i in 3..1 %}{% concurrent %}{{ loop.index }}{{ i }} {% endconcurrent %}{% endfor %}");
+        assertThat(template.output(new JtwigContext()), is("03 12 21 "));
+    }
+
+    @Test
+    public void contextIsReusableAfterConcurrentRender() throws Exception {
+        JtwigTemplate template = new JtwigTemplate("{% concurrent %}a{% endconcurrent %}{% set name = 'set' %}{{ name }}");
+        JtwigModelMap model = new JtwigModelMap();
+        JtwigContext context = new JtwigContext(model);
+
+        assertThat(template.output(context), is("aset"));
+        assertThat(model.get("name"), is((Object) "set"));
+        context.set("name", "later");
+        assertThat(model.get("name"), is((Object) "later"));
+    }
+
     @Test
     public void test_concurrent_1() throws Exception {
         JtwigTemplate template = new JtwigTemplate("{% concurrent %}{% for item in list %}" +
@@ -17,6 +17,7 @@ package com.lyncode.jtwig.unit;
 import com.lyncode.jtwig.JtwigContext;
 import com.lyncode.jtwig.JtwigModelMap;
 import com.lyncode.jtwig.expressions.model.Variable;
+import com.lyncode.jtwig.functions.repository.FunctionResolver;
 import com.lyncode.jtwig.parser.model.JtwigPosition;
 import com.lyncode.jtwig.render.RenderContext;
 import org.junit.Test;
@@ -37,6 +38,72 @@ public class JtwigContextTest {
         assertThat(new Variable(position, "name").compile(null).calculate(RenderContext.create(null, context, null)), is((Object) "joao"));
     }
 
+    @Test
+    public void forkSeesValuesAssignedBefore() throws Exception {
+        JtwigContext parent = new JtwigContext();
+        parent.set("name", "joao");
+
+        JtwigContext fork = parent.fork();
+
+        assertThat(fork.map("name"), is((Object) "joao"));
+    }
+
+    @Test
+    public void forkAndParentAssignmentsAreIsolated() throws Exception {
+        JtwigModelMap model = new JtwigModelMap().add("name", "joao");
+        JtwigContext parent = new JtwigContext(model);
+
+        JtwigContext fork = parent.fork();
+        fork.set("name", "fork");
+        parent.set("name", "parent");
+
+        assertThat(fork.map("name"), is((Object) "fork"));
+        assertThat(parent.map("name"), is((Object) "parent"));
+        assertThat(model.get("name"), is((Object) "joao"));
+    }
+
+    @Test
+    public void modelIncludesAssignmentsAfterFork() throws Exception {
+        JtwigContext parent = new JtwigContext(new JtwigModelMap().add("a", 1));
+        JtwigContext fork = parent.fork();
+        fork.set("b", 2);
+
+        JtwigModelMap model = (JtwigModelMap) fork.map("model");
+
+        assertThat(model.get("a"), is((Object) 1));
+        assertThat(model.get("b"), is((Object) 2));
+    }
+
+    @Test
+    public void forkingRenderContextLeavesContextUntouched() throws Exception {
+        JtwigModelMap model = new JtwigModelMap();
+        JtwigContext context = new JtwigContext(model);
+        JtwigContext render = context.forRender();
+
+        render.fork();
+        render.set("name", "render");
+        assertThat(model.containsKey("name"), is(false));
+
+        context.join(render);
+        assertThat(model.get("name"), is((Object) "render"));
+
+        context.set("name", "later");
+        assertThat(model.get("name"), is((Object) "later"));
+        assertThat(context.map("name"), is((Object) "later"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void sharedDefaultFunctionResolverIsReadOnly() throws Exception {
+        new JtwigContext().functionResolver().store(new Object());
+    }
+
+    @Test
+    public void ownFunctionResolverCanBeChanged() throws Exception {
+        FunctionResolver resolver = new FunctionResolver();
+
+        assertThat(new JtwigContext(new JtwigModelMap(), resolver).functionResolver().store(new Object()), is(resolver));
+    }
+
     private void addItem(String key, Object value) {
         when(modelMap.get(key)).thenReturn(value);
         when(modelMap.containsKey(key)).thenReturn(true);
@@ -0,0 +1,84 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.unit;
+
+import com.lyncode.jtwig.JtwigEnvironment;
+import com.lyncode.jtwig.JtwigModelMap;
+import com.lyncode.jtwig.JtwigTemplate;
+import com.lyncode.jtwig.configuration.JtwigConfiguration;
+import com.lyncode.jtwig.resource.JtwigResource;
+import com.lyncode.jtwig.resource.JtwigResourceLoader;
+import com.lyncode.jtwig.resource.StringJtwigResource;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.*;
+
+public class JtwigEnvironmentTest {
+    private JtwigResourceLoader loader = mock(JtwigResourceLoader.class);
+    private JtwigEnvironment underTest = new JtwigEnvironment(loader);
+
+    @Test
+    public void templatesAreLoadedOnce() throws Exception {
+        when(loader.load("index")).thenReturn(new StringJtwigResource("Hello"));
+
+        assertThat(underTest.getTemplate("index"), sameInstance(underTest.getTemplate("index")));
+        verify(loader, times(1)).load("index");
+    }
+
+    @Test
+    public void rendersWithModel() throws Exception {
+        when(loader.load("index")).thenReturn(new StringJtwigResource("Hello {{ name | upper }}"));
+
+        assertThat(underTest.render("index", new JtwigModelMap().add("name", "joao")), is("Hello JOAO"));
+        assertThat(underTest.render("index", new JtwigModelMap().add("name", "maria")), is("Hello MARIA"));
+    }
+
+    @Test
+    public void givenConfigurationIsLeftUntouched() throws Exception {
+        JtwigConfiguration configuration = new JtwigConfiguration();
+
+        JtwigEnvironment environment = new JtwigEnvironment(loader, configuration);
+
+        assertThat(configuration.compile().functionResolver(), nullValue());
+        assertThat(environment.configuration().compile().functionResolver(), sameInstance(environment.functionResolver()));
+    }
+
+    @Test
+    public void invalidatesOnlyDependentTemplates() throws Exception {
+        JtwigResource child = mock(JtwigResource.class);
+        JtwigResource layout = mock(JtwigResource.class);
+        when(loader.load("child")).thenReturn(child);
+        when(loader.load("other")).thenReturn(new StringJtwigResource("other"));
+        when(child.resolve("layout")).thenReturn(layout);
+        when(child.retrieve()).thenReturn(new ByteArrayInputStream("{% extends 'layout' %}".getBytes()));
+        when(layout.retrieve()).thenReturn(new ByteArrayInputStream("layout".getBytes()));
+
+        JtwigTemplate childTemplate = underTest.getTemplate("child");
+        JtwigTemplate otherTemplate = underTest.getTemplate("other");
+        underTest.render("child", new JtwigModelMap());
+        underTest.render("other", new JtwigModelMap());
+
+        assertThat(underTest.invalidate(layout), is(1));
+        assertThat(underTest.getTemplate("other"), sameInstance(otherTemplate));
+        assertThat(underTest.getTemplate("child"), not(sameInstance(childTemplate)));
+    }
+}
@@ -16,16 +16,20 @@ package com.lyncode.jtwig.unit;
 
 import com.lyncode.jtwig.JtwigContext;
 import com.lyncode.jtwig.JtwigTemplate;
+import com.lyncode.jtwig.configuration.JtwigConfiguration;
 import com.lyncode.jtwig.resource.JtwigResource;
 import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class JtwigTemplateTest {
@@ -76,6 +80,120 @@ public class JtwigTemplateTest {
         assertThat(theOutput(), is("Block one and two"));
     }
 
+    @Test
+    public void compiledTemplateIsReusedWhileResourceIsUnchanged() throws Exception {
+        when(resource.lastModified()).thenReturn(1L);
+        when(resource.retrieve()).thenReturn(new ByteArrayInputStream("joao".getBytes()));
+
+        underTest.output(toTheOutputStream(), context);
+        underTest.output(toTheOutputStream(), context);
+
+        assertThat(theOutput(), is("joao"));
+        verify(resource, times(1)).retrieve();
+    }
+
+    @Test
+    public void templateIsRecompiledWhenResourceChanges() throws Exception {
+        when(resource.lastModified()).thenReturn(1L);
+        when(resource.retrieve())
+                .thenReturn(new ByteArrayInputStream("one".getBytes()))
+                .thenReturn(new ByteArrayInputStream("two".getBytes()));
+
+        underTest.output(toTheOutputStream(), context);
+        assertThat(theOutput(), is("one"));
+
+        when(resource.lastModified()).thenReturn(2L);
+        underTest.output(toTheOutputStream(), context);
+        assertThat(theOutput(), is("two"));
+    }
+
+    @Test
+    public void sourcesAreNotCheckedWithinCheckInterval() throws Exception {
+        JtwigConfiguration configuration = new JtwigConfiguration();
+        configuration.compile().checkInterval(TimeUnit.HOURS.toMillis(1));
+        JtwigTemplate template = new JtwigTemplate(resource, configuration);
+        when(resource.lastModified()).thenReturn(1L);
+        when(resource.retrieve()).thenReturn(new ByteArrayInputStream("one".getBytes()));
+
+        template.output(toTheOutputStream(), context);
+        when(resource.lastModified()).thenReturn(2L);
+        template.output(toTheOutputStream(), context);
+
+        assertThat(theOutput(), is("one"));
+        verify(resource, times(1)).retrieve();
+    }
+
+    @Test
+    public void sourcesAreNeverCheckedWithNegativeInterval() throws Exception {
+        JtwigConfiguration configuration = new JtwigConfiguration();
+        configuration.compile().checkInterval(-1);
+        JtwigTemplate template = new JtwigTemplate(resource, configuration);
+        when(resource.lastModified()).thenReturn(1L);
+        when(resource.retrieve()).thenReturn(new ByteArrayInputStream("one".getBytes()));
+
+        template.output(toTheOutputStream(), context);
+        when(resource.lastModified()).thenReturn(2L);
+        template.output(toTheOutputStream(), context);
+
+        assertThat(theOutput(), is("one"));
+        verify(resource, times(1)).retrieve();
+    }
+
+    @Test
+    public void foldedExpressionsAreReported() throws Exception {
+        JtwigTemplate template = new JtwigTemplate("{{ 60 * 60 * 24 }} {{ name }}");
+
+        assertThat(template.foldedExpressions(), is(0));
+        template.output(context);
+        assertThat(template.foldedExpressions(), is(2));
+    }
+
+    @Test
+    public void templateIsRecompiledWhenParentChanges() throws Exception {
+        JtwigResource parent = mock(JtwigResource.class);
+
+        when(resource.retrieve())
+                .thenReturn(new ByteArrayInputStream("{% extends 'parent' %}{% block a %}a{% endblock %}".getBytes()))
+                .thenReturn(new ByteArrayInputStream("{% extends 'parent' %}{% block a %}a{% endblock %}".getBytes()));
+        when(resource.resolve("parent")).thenReturn(parent);
+        when(parent.lastModified()).thenReturn(1L);
+        when(parent.retrieve())
+                .thenReturn(new ByteArrayInputStream("1{% block a %}{% endblock %}".getBytes()))
+                .thenReturn(new ByteArrayInputStream("2{% block a %}{% endblock %}".getBytes()));
+
+        underTest.output(toTheOutputStream(), context);
+        assertThat(theOutput(), is("1a"));
+        assertThat(underTest.dependsOn(parent), is(true));
+
+        when(parent.lastModified()).thenReturn(2L);
+        underTest.output(toTheOutputStream(), context);
+        assertThat(theOutput(), is("2a"));
+    }
+
+    @Test
+    public void repeatedIncludeIsParsedOnce() throws Exception {
+        JtwigResource partial = mock(JtwigResource.class);
+
+        when(resource.retrieve()).thenReturn(new ByteArrayInputStream("{% include 'partial' %}-{% include 'partial' %}".getBytes()));
+        when(resource.resolve("partial")).thenReturn(partial);
+        when(partial.retrieve()).thenReturn(new ByteArrayInputStream("p".getBytes()));
+
+        underTest.output(toTheOutputStream(), context);
+
+        assertThat(theOutput(), is("p-p"));
+        verify(partial, times(1)).retrieve();
+    }
+
+    @Test
+    public void compositionDoesNotChangeCompiledTemplate() throws Exception {
+        when(resource.retrieve()).thenReturn(new ByteArrayInputStream("{{ 'a' | upper }}".getBytes()));
+
+        underTest.output(toTheOutputStream(), context);
+        underTest.output(toTheOutputStream(), context);
+
+        assertThat(theOutput(), is("A"));
+    }
+
     private String theOutput() {
         return outputStream.toString();
     }
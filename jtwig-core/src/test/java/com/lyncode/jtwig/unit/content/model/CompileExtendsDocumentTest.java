@@ -129,6 +129,22 @@ public class CompileExtendsDocumentTest {
         verify(blockC, times(1)).render(any(RenderContext.class));
     }
 
+    @Test
+    public void blocksNotUsedByTheParentAreNotCompiled() throws Exception {
+        Compilable unused = mock(Compilable.class);
+        JtwigResource extendTemplate = mock(JtwigResource.class);
+        when(resource.resolve("abc")).thenReturn(extendTemplate);
+        when(parser.parse(extendTemplate)).thenReturn(
+                new Sequence().add(new Block("block").withContent(toRender(mock(Renderable.class))))
+        );
+
+        new Extends("abc")
+                .add(new Block("unused").withContent(new Sequence().add(unused)))
+                .compile(new CompileContext(resource, parser, null));
+
+        verify(unused, never()).compile(any(CompileContext.class));
+    }
+
     private Sequence toRender(final Renderable elementRender) {
         return new Sequence().add(new Compilable() {
             @Override
@@ -24,11 +24,13 @@ import com.lyncode.jtwig.content.model.compilable.Sequence;
 import com.lyncode.jtwig.exception.CompileException;
 import com.lyncode.jtwig.expressions.api.CompilableExpression;
 import com.lyncode.jtwig.expressions.api.Expression;
+import com.lyncode.jtwig.expressions.model.Constant;
 import com.lyncode.jtwig.parser.JtwigParser;
 import com.lyncode.jtwig.render.RenderContext;
 import com.lyncode.jtwig.resource.JtwigResource;
 import org.junit.Test;
 
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.*;
 
 public class IfControlTest {
@@ -67,8 +69,20 @@ public class IfControlTest {
         verify(render, times(0)).render(context);
     }
 
+    @Test
+    public void constantConditionsAreResolvedAtCompileTime() throws Exception {
+        Renderable first = mock(Renderable.class);
+        Renderable second = mock(Renderable.class);
+        Renderable third = mock(Renderable.class);
+        IfControl control = new IfControl()
+                .add(new IfControl.Case(new Constant<>(false)).withContent(toRender(first)))
+                .add(new IfControl.Case(new Constant<>(true)).withContent(toRender(second)))
+                .add(new IfControl.Case(new Constant<>(true)).withContent(toRender(third)));
 
+        Renderable compiled = control.compile(new CompileContext(mock(JtwigResource.class), mock(JtwigParser.class), mock(CompileConfiguration.class)));
 
+        assertSame(second, compiled);
+    }
 
     private Sequence toRender(final Renderable elementRender) {
         return new Sequence().add(new Compilable() {
@@ -29,6 +29,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.nio.charset.Charset;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.*;
@@ -50,6 +51,25 @@ public class TextTest {
         verify(renderContext).write(" Hello ".getBytes());
     }
 
+    @Test
+    public void textIsEncodedWithCompileCharset() throws Exception {
+        Charset charset = Charset.forName("UTF-16");
+        new Text("Ol\u00e1").compile(context.withCharset(charset)).render(renderContext);
+
+        verify(renderContext).write("Ol\u00e1".getBytes(charset));
+    }
+
+    @Test
+    public void adjacentTextsAreWrittenAtOnce() throws Exception {
+        new Sequence()
+                .add(new Text("Hello"))
+                .add(new Text(" World"))
+                .compile(context)
+                .render(renderContext);
+
+        verify(renderContext).write("Hello World".getBytes());
+    }
+
     @Test
     public void removingStartingWhiteSpaces() throws Exception {
         Content before = mock(Content.class);
@@ -15,14 +15,27 @@
 package com.lyncode.jtwig.unit.expressions.model;
 
 import com.lyncode.jtwig.JtwigContext;
+import com.lyncode.jtwig.compile.CompileContext;
+import com.lyncode.jtwig.compile.config.CompileConfiguration;
+import com.lyncode.jtwig.expressions.api.Expression;
+import com.lyncode.jtwig.expressions.model.Constant;
 import com.lyncode.jtwig.expressions.model.FunctionElement;
 import com.lyncode.jtwig.functions.parameters.GivenParameters;
+import com.lyncode.jtwig.functions.repository.FunctionResolver;
 import com.lyncode.jtwig.render.RenderContext;
 import org.junit.Test;
 
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 
 public class FunctionElementTest {
@@ -37,4 +50,72 @@ public class FunctionElementTest {
 
         verify(context).executeFunction(eq("name"), any(GivenParameters.class));
     }
+
+    @Test
+    public void constantArgumentsAreBoundToOverload() throws Exception {
+        JtwigContext context = spy(new JtwigContext());
+        Expression expression = new FunctionElement(null, "concat")
+                .add(new Constant<>("a"))
+                .add(new Constant<>("b"))
+                .compile(null);
+
+        RenderContext renderContext = RenderContext.create(null, context, null);
+        assertEquals("ab", expression.calculate(renderContext));
+        assertEquals("ab", expression.calculate(renderContext));
+
+        verify(context, never()).executeFunction(anyString(), any(GivenParameters.class));
+    }
+
+    @Test
+    public void pureFunctionWithConstantArgumentsIsEvaluatedOnCompile() throws Exception {
+        CompileContext context = new CompileContext(null, null, new CompileConfiguration().functionResolver(new FunctionResolver()));
+
+        Expression result = new FunctionElement(null, "join")
+                .add(new FunctionElement(null, "range").add(new Constant<>(1)).add(new Constant<>(3)))
+                .add(new Constant<>(","))
+                .compile(context);
+
+        assertThat(result, instanceOf(Constant.Compiled.class));
+        assertEquals("1,2,3", result.calculate(null));
+        assertEquals(2, context.foldedExpressions());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void foldedCollectionsAreReadOnly() throws Exception {
+        CompileContext context = new CompileContext(null, null, new CompileConfiguration().functionResolver(new FunctionResolver()));
+
+        Expression result = new FunctionElement(null, "batch")
+                .add(new FunctionElement(null, "range").add(new Constant<>(1)).add(new Constant<>(4)))
+                .add(new Constant<>(2))
+                .compile(context);
+
+        assertThat(result, instanceOf(Constant.Compiled.class));
+        List<?> batches = (List<?>) result.calculate(null);
+        ((List<Object>) batches.get(0)).add(5);
+    }
+
+    @Test
+    public void impureFunctionIsNotEvaluatedOnCompile() throws Exception {
+        CompileContext context = new CompileContext(null, null, new CompileConfiguration().functionResolver(new FunctionResolver()));
+
+        Expression result = new FunctionElement(null, "defined")
+                .add(new Constant<>("a"))
+                .compile(context);
+
+        assertThat(result, instanceOf(FunctionElement.Compiled.class));
+        assertEquals(0, context.foldedExpressions());
+    }
+
+    @Test
+    public void unboundArgumentsAreResolvedPerCall() throws Exception {
+        JtwigContext context = spy(new JtwigContext());
+        Expression expression = new FunctionElement(null, "concat")
+                .add(new Constant<>(1))
+                .add(new Constant<>("b"))
+                .compile(null);
+
+        assertEquals("1b", expression.calculate(RenderContext.create(null, context, null)));
+
+        verify(context).executeFunction(eq("concat"), any(GivenParameters.class));
+    }
 }
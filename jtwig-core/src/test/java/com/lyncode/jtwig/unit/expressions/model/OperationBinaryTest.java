@@ -16,16 +16,21 @@ package com.lyncode.jtwig.unit.expressions.model;
 
 import com.lyncode.jtwig.JtwigContext;
 import com.lyncode.jtwig.compile.CompileContext;
+import com.lyncode.jtwig.compile.config.CompileConfiguration;
 import com.lyncode.jtwig.exception.CompileException;
 import com.lyncode.jtwig.expressions.api.CompilableExpression;
 import com.lyncode.jtwig.expressions.api.Expression;
+import com.lyncode.jtwig.expressions.model.Constant;
 import com.lyncode.jtwig.expressions.model.OperationBinary;
 import com.lyncode.jtwig.expressions.model.Operator;
 import com.lyncode.jtwig.expressions.model.Variable;
+import com.lyncode.jtwig.functions.repository.FunctionResolver;
 import com.lyncode.jtwig.render.RenderContext;
 import org.junit.Test;
 
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -64,6 +69,49 @@ public class OperationBinaryTest {
         assertEquals(true, result);
     }
 
+    @Test
+    public void constantOperandsAreFolded() throws Exception {
+        CompileContext context = new CompileContext(null, null, null);
+
+        Expression result = new OperationBinary(null, new Constant<>(60))
+                .add(Operator.TIMES)
+                .add(new Constant<>(60))
+                .add(Operator.TIMES)
+                .add(new Constant<>(24))
+                .compile(context);
+
+        assertThat(result, instanceOf(Constant.Compiled.class));
+        assertEquals(86400.0, result.calculate(null));
+        assertEquals(2, context.foldedExpressions());
+    }
+
+    @Test
+    public void failingConstantOperationIsKeptForRendering() throws Exception {
+        CompileContext context = new CompileContext(null, null, null);
+
+        Expression result = new OperationBinary(null, new Constant<>(1))
+                .add(Operator.INT_DIV)
+                .add(new Constant<>(0))
+                .compile(context);
+
+        assertThat(result, instanceOf(OperationBinary.Compiled.class));
+        assertEquals(0, context.foldedExpressions());
+    }
+
+    @Test
+    public void pureFunctionCompositionWithConstantIsFolded() throws Exception {
+        CompileContext context = new CompileContext(null, null, new CompileConfiguration().functionResolver(new FunctionResolver()));
+
+        Expression result = new OperationBinary(null, new Constant<>("ABC"))
+                .add(Operator.COMPOSITION)
+                .add(new Variable(null, "lower"))
+                .compile(context);
+
+        assertThat(result, instanceOf(Constant.Compiled.class));
+        assertEquals("abc", result.calculate(null));
+        assertEquals(1, context.foldedExpressions());
+    }
+
     private CompilableExpression expression(final Expression expression) {
         return new CompilableExpression() {
             @Override
@@ -18,11 +18,14 @@ import com.lyncode.jtwig.compile.CompileContext;
 import com.lyncode.jtwig.exception.CompileException;
 import com.lyncode.jtwig.expressions.api.CompilableExpression;
 import com.lyncode.jtwig.expressions.api.Expression;
+import com.lyncode.jtwig.expressions.model.Constant;
 import com.lyncode.jtwig.expressions.model.OperationTernary;
 import com.lyncode.jtwig.render.RenderContext;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.*;
 
@@ -67,6 +70,36 @@ public class OperationTernaryTest {
     }
 
 
+    @Test
+    public void constantConditionSelectsBranchAtCompileTime() throws Exception {
+        Expression trueExp = mock(Expression.class);
+        Expression falseExp = mock(Expression.class);
+        CompileContext compileContext = new CompileContext(null, null, null);
+
+        Expression result = new OperationTernary(null, new Constant<>(false))
+                .withTrueExpression(expression(trueExp))
+                .withFalseExpression(expression(falseExp))
+                .compile(compileContext);
+
+        assertSame(falseExp, result);
+        assertEquals(1, compileContext.foldedExpressions());
+    }
+
+    @Test
+    public void failingConstantConditionIsKeptForRendering() throws Exception {
+        Expression trueExp = mock(Expression.class);
+        Expression falseExp = mock(Expression.class);
+        CompileContext compileContext = new CompileContext(null, null, null);
+
+        Expression result = new OperationTernary(null, new Constant<>(new int[] { 1 }))
+                .withTrueExpression(expression(trueExp))
+                .withFalseExpression(expression(falseExp))
+                .compile(compileContext);
+
+        assertNotSame(trueExp, result);
+        assertNotSame(falseExp, result);
+        assertEquals(0, compileContext.foldedExpressions());
+    }
 
     private CompilableExpression expression(final Expression expression) {
         return new CompilableExpression() {
@@ -39,4 +39,16 @@ public class ValueListTest {
 
         assertThat(result, is(instanceOf(List.class)));
     }
+
+    @Test
+    public void comprehensionIsNotMaterialized() throws Exception {
+        ValueList list = ValueList.create(null, new Constant(1000000), new Constant(1));
+
+        List result = (List) list.compile(mock(CompileContext.class)).calculate(null);
+
+        assertThat(result.size(), is(1000000));
+        assertThat(result.get(1), is((Object) 999999));
+        assertThat(result.contains(42), is(true));
+        assertThat(result.indexOf(1), is(999999));
+    }
 }
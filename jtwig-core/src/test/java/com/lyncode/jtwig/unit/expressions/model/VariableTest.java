@@ -15,11 +15,16 @@
 package com.lyncode.jtwig.unit.expressions.model;
 
 import com.lyncode.jtwig.JtwigContext;
+import com.lyncode.jtwig.JtwigModelMap;
+import com.lyncode.jtwig.compile.CompileContext;
+import com.lyncode.jtwig.expressions.api.Expression;
 import com.lyncode.jtwig.expressions.model.Variable;
+import com.lyncode.jtwig.render.Frame;
 import com.lyncode.jtwig.render.RenderContext;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -33,4 +38,51 @@ public class VariableTest {
 
         assertEquals("one", underTest.compile(null).calculate(RenderContext.create(null, context, null)));
     }
+
+    @Test
+    public void assignedVariableIsReadFromFrame() throws Exception {
+        CompileContext compileContext = new CompileContext(null, null, null);
+        int slot = compileContext.slots().assign("variable");
+        JtwigModelMap model = new JtwigModelMap();
+        RenderContext renderContext = RenderContext.create(null, new JtwigContext(model).forRender(), null);
+        Frame.assign(renderContext, slot, "variable", "two");
+
+        assertEquals("two", underTest.compile(compileContext).calculate(renderContext));
+        assertFalse(model.containsKey("variable"));
+    }
+
+    @Test
+    public void variableReadBeforeItsAssignmentIsCompiledUsesFrame() throws Exception {
+        CompileContext compileContext = new CompileContext(null, null, null);
+        Expression variable = underTest.compile(compileContext);
+        int slot = compileContext.slots().assign("variable");
+        RenderContext renderContext = RenderContext.create(null, new JtwigContext(new JtwigModelMap().add("variable", "one")).forRender(), null);
+
+        assertEquals("one", variable.calculate(renderContext));
+        Frame.assign(renderContext, slot, "variable", "two");
+        assertEquals("two", variable.calculate(renderContext));
+    }
+
+    @Test
+    public void frameValuesReachCallerContextOnJoin() throws Exception {
+        CompileContext compileContext = new CompileContext(null, null, null);
+        int slot = compileContext.slots().assign("variable");
+        JtwigModelMap model = new JtwigModelMap();
+        JtwigContext context = new JtwigContext(model);
+        JtwigContext render = context.forRender();
+        Frame.assign(RenderContext.create(null, render, null), slot, "variable", "two");
+
+        context.join(render);
+        assertEquals("two", model.get("variable"));
+    }
+
+    @Test
+    public void unsetSlotFallsBackToModel() throws Exception {
+        CompileContext compileContext = new CompileContext(null, null, null);
+        compileContext.slots().assign("variable");
+        JtwigContext context = mock(JtwigContext.class);
+        when(context.map("variable")).thenReturn("one");
+
+        assertEquals("one", underTest.compile(compileContext).calculate(RenderContext.create(null, context, null)));
+    }
 }
@@ -0,0 +1,118 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.unit.parser;
+
+import com.lyncode.jtwig.JtwigContext;
+import com.lyncode.jtwig.compile.CompileContext;
+import com.lyncode.jtwig.content.api.Compilable;
+import com.lyncode.jtwig.content.api.Renderable;
+import com.lyncode.jtwig.parser.JtwigParser;
+import com.lyncode.jtwig.parser.cache.DiskParseCache;
+import com.lyncode.jtwig.parser.config.ParserConfiguration;
+import com.lyncode.jtwig.parser.model.JtwigPosition;
+import com.lyncode.jtwig.render.RenderContext;
+import com.lyncode.jtwig.render.config.RenderConfiguration;
+import com.lyncode.jtwig.resource.JtwigResource;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Serializable;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class JtwigParserCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private JtwigResource resource = mock(JtwigResource.class);
+
+    @Test
+    public void parsedTemplateIsStoredOnDisk() throws Exception {
+        when(resource.toString()).thenReturn("cached");
+        when(resource.retrieve()).thenReturn(stream("{% for i in [1,2] %}{{ i }}{% endfor %}"));
+
+        assertThat(render(newParser().parse(resource)), is("12"));
+        assertThat(folder.getRoot().list().length, is(1));
+    }
+
+    @Test
+    public void storedTemplateIsReusedByNewParser() throws Exception {
+        when(resource.toString()).thenReturn("cached");
+        when(resource.retrieve())
+                .thenReturn(stream("{% if true %}Hello {{ name | upper }}{% endif %}"))
+                .thenReturn(stream("{% if true %}Hello {{ name | upper }}{% endif %}"));
+
+        newParser().parse(resource);
+        assertThat(render(newParser().parse(resource)), is("Hello JOAO"));
+    }
+
+    @Test
+    public void changedContentIsParsedAgain() throws Exception {
+        when(resource.toString()).thenReturn("cached");
+        when(resource.retrieve())
+                .thenReturn(stream("one"))
+                .thenReturn(stream("two"));
+
+        assertThat(render(newParser().parse(resource)), is("one"));
+        assertThat(render(newParser().parse(resource)), is("two"));
+    }
+
+    @Test
+    public void loadedPositionsReferToTheResource() throws Exception {
+        DiskParseCache cache = new DiskParseCache(folder.getRoot());
+        cache.store("key", "hash", new Positioned(new JtwigPosition(resource, 1, 2)));
+
+        JtwigPosition position = ((Positioned) cache.load("key", "hash", resource)).position;
+
+        assertThat(position.getResource(), is(resource));
+        assertThat(position.getRow(), is(1));
+        assertThat(position.getColumn(), is(2));
+    }
+
+    private JtwigParser newParser() {
+        return new JtwigParser(new ParserConfiguration().withCacheDirectory(folder.getRoot()));
+    }
+
+    private String render(Compilable compilable) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        JtwigContext context = new JtwigContext().withModelAttribute("name", "joao");
+        compilable.compile(new CompileContext(resource, null, null))
+                .render(RenderContext.create(new RenderConfiguration(), context, outputStream));
+        return outputStream.toString();
+    }
+
+    private ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes());
+    }
+
+    private static class Positioned implements Compilable, Serializable {
+        private final JtwigPosition position;
+
+        private Positioned(JtwigPosition position) {
+            this.position = position;
+        }
+
+        @Override
+        public Renderable compile(CompileContext context) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.unit.parser;
+
+import com.lyncode.jtwig.JtwigContext;
+import com.lyncode.jtwig.compile.CompileContext;
+import com.lyncode.jtwig.content.api.Compilable;
+import com.lyncode.jtwig.exception.RenderException;
+import com.lyncode.jtwig.parser.JtwigParser;
+import com.lyncode.jtwig.parser.config.ParserConfiguration;
+import com.lyncode.jtwig.render.RenderContext;
+import com.lyncode.jtwig.render.config.RenderConfiguration;
+import com.lyncode.jtwig.resource.JtwigResource;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.concurrent.*;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.*;
+
+public class JtwigParserTest {
+    private JtwigParser underTest = new JtwigParser();
+
+    @Test
+    public void parserIsReusedAcrossResources() throws Exception {
+        assertThat(render(underTest.parse(resource("first", "{% if true %}1{% endif %}"))), is("1"));
+        assertThat(render(underTest.parse(resource("second", "{% for i in [1,2] %}{{ i }}{% endfor %}"))), is("12"));
+    }
+
+    @Test
+    public void positionsReferToTheResourceBeingParsed() throws Exception {
+        underTest.parse(resource("first", "{{ first }}"));
+        Compilable second = underTest.parse(resource("second", "{{ unknown(1) }}"));
+
+        try {
+            render(second);
+            fail();
+        } catch (RenderException e) {
+            assertThat(e.getMessage(), containsString("second"));
+        }
+    }
+
+    @Test
+    public void concurrentParsesOfTheSameResourceAreShared() throws Exception {
+        final JtwigResource resource = mock(JtwigResource.class);
+        final CountDownLatch reading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        when(resource.retrieve()).thenAnswer(new Answer<InputStream>() {
+            @Override
+            public InputStream answer(InvocationOnMock invocation) throws Throwable {
+                reading.countDown();
+                release.await();
+                return new ByteArrayInputStream("shared".getBytes());
+            }
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Callable<Compilable> parse = new Callable<Compilable>() {
+                @Override
+                public Compilable call() throws Exception {
+                    return underTest.parse(resource);
+                }
+            };
+            Future<Compilable> first = executor.submit(parse);
+            reading.await();
+            Future<Compilable> second = executor.submit(parse);
+            Thread.sleep(50);
+            release.countDown();
+
+            assertThat(second.get(), is(sameInstance(first.get())));
+            verify(resource, times(1)).retrieve();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void parsedTemplatesAreBounded() throws Exception {
+        JtwigParser parser = new JtwigParser(new ParserConfiguration().withParsedCacheSize(1));
+        JtwigResource first = resource("first", "one");
+        JtwigResource second = resource("second", "two");
+        when(first.retrieve())
+                .thenReturn(new ByteArrayInputStream("one".getBytes()))
+                .thenReturn(new ByteArrayInputStream("one".getBytes()));
+
+        parser.parse(first);
+        parser.parse(second);
+        parser.parse(first);
+
+        verify(first, times(2)).retrieve();
+    }
+
+    private JtwigResource resource(String name, String content) throws Exception {
+        JtwigResource resource = mock(JtwigResource.class);
+        when(resource.toString()).thenReturn(name);
+        when(resource.retrieve()).thenReturn(new ByteArrayInputStream(content.getBytes()));
+        return resource;
+    }
+
+    private String render(Compilable compilable) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        compilable.compile(new CompileContext(null, underTest, null))
+                .render(RenderContext.create(new RenderConfiguration(), new JtwigContext(), outputStream));
+        return outputStream.toString();
+    }
+}
@@ -0,0 +1,214 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.unit.parser;
+
+import com.lyncode.jtwig.JtwigContext;
+import com.lyncode.jtwig.JtwigModelMap;
+import com.lyncode.jtwig.JtwigTemplate;
+import com.lyncode.jtwig.configuration.JtwigConfiguration;
+import com.lyncode.jtwig.exception.ParseException;
+import com.lyncode.jtwig.parser.config.ParserEngine;
+import com.lyncode.jtwig.resource.ClasspathJtwigResource;
+import com.lyncode.jtwig.resource.JtwigResource;
+import com.lyncode.jtwig.resource.StringJtwigResource;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Renders the same templates with both parser engines, which must produce the same output
+ * (or the same rendering and parsing errors, positions and explanations included).
+ */
+public class ParserEngineParityTest {
+    private static final String[] TEMPLATES = {
+            "",
+            "plain text only",
+            "Hello {{ name }}!",
+            "{{ name }}{{ missing }}",
+            "{{ 1 + 2 * 3 }} {{ (1 + 2) * 3 }} {{ 7 // 2 }} {{ 7 / 2 }} {{ 10 % 3 }} {{ 2 ** 3 }}",
+            "{{ 1.5 + 1 }} {{ -3 + 1 }} {{ 5 - 2 - 1 }}",
+            "{{ 'a' }}{{ \"b\" }}{{ 'ab' }}{{ 'it\\'s' }}",
+            "{{ true and false }} {{ true or false }} {{ not true }} {{ null }}",
+            "{{ 1 == 1 }} {{ 1 < 2 }} {{ 2 >= 2 }} {{ 1 <= 0 }} {{ 3 > 2 }}",
+            "{{ 'jtwig' starts with 'jt' }} {{ 'jtwig' ends with 'g' }} {{ 'abc' matches '[a-c]+' }}",
+            "{{ 2 in list }} {{ 5 in list }}",
+            "{{ 4 is divisable by 2 }} {{ 3 is odd }} {{ name is not null }} {{ nothing is null }}",
+            "{{ true ? 'yes' : 'no' }} {{ false ? 1 : 2 }} {{ list ? list | length : 0 }}",
+            "{{ map.a }} {{ map['b'] }} {{ map[key] }}",
+            "{{ [1, 2, 3] | join(',') }} {{ 1..5 | join }} {{ 5..1 | join }} {{ 'a'..'e' | join(' ') }}",
+            "{{ {a: 1, b: 'x'} | length }} {{ {} | length }} {{ [] | length }}",
+            "{{ name | upper }} {{ name | upper | lower }} {{ upper(name) }} {{ upper name }}",
+            "{{ 'Hello %s and %s' | format(name, 'you') }} {{ concat('a', 'b', 'c') }}",
+            "{{ 1 {# inline comment #} + 2 }}",
+            "{% if list %}yes{% endif %}",
+            "{% if false %}a{% elseif true %}b{% else %}c{% endif %}",
+            "{% if false %}a{% elseif false %}b{% elseif 1 == 1 %}c{% endif %}",
+            "{% for i in list %}{{ i }},{% endfor %}",
+            "{% for k, v in map %}{{ k }}={{ v }};{% endfor %}",
+            "{% for i in 1..3 %}{{ loop.index }}{{ loop.first }}{{ loop.last }}{% endfor %}",
+            "{% for i in list %}{% if i is odd %}{{ i }}{% else %}-{% endif %}{% endfor %}",
+            "{% set x = 3 %}{{ x * x }}{% set y = x + 1 %}{{ y }}",
+            "{% verbatim %}{{ not parsed }} {% if %}{% endverbatim %}",
+            "a{# comment #}b",
+            "a {#- trimmed -#} b",
+            "a {%- if true -%} b {%- endif -%} c",
+            "a  {{- name -}}  b",
+            "{% for i in list -%}\n  {{ i }}\n{%- endfor %}",
+            "  {% if true %}\n  x\n  {% endif %}  ",
+            "{% block x %}content{% endblock %}",
+            "{% spaceless %}<a>  </a> <b></b>{% endspaceless %}",
+            "{% filter upper %}abc{% endfilter %}",
+            "{% filter format('x')|upper %}a %s{% endfilter %}",
+            "{% concurrent %}a{{ name }}{% endconcurrent %}",
+            "line\nbreaks\r\n{{ name }}\n",
+            "escaped \\n \\{{ name }}",
+            "{{ nonExisting(1) }}",
+            "{{ name.nonExisting }}\n{{ map.a.b }}"
+    };
+
+    private static final String[] INVALID = {
+            "{% if %}x{% endif %}",
+            "{{ }}",
+            "{{ [1, }}",
+            "{{ {a: } }}",
+            "{% for i %}{% endfor %}",
+            "{% set = 1 %}",
+            "{% unknown %}",
+            "{% filter %}a{% endfilter %}",
+            "{{ 'abc'..'abc' }}",
+            "{{ 1 + }}",
+            "{% if true %}a{% elseif %}b{% endif %}",
+            "{% include %}",
+            "{% extends 'x' %}text",
+            "{{ 1 ~ 2 }}",
+            "{% for i in [] %}a{% else %}b{% endfor %}",
+            "abc\n  {{ name }",
+            "{% if true %}x",
+            "{{ true ? 1 }}",
+            "{{ map[1 }}",
+            "{{ concat(1, }}",
+            "{{ 1 is not }}",
+            "{% set a 1 %}",
+            "{% embed 'x' %}",
+            "{% verbatim %}x",
+            "{% spaceless %}x",
+            "{% if true %}{% for %}{% endif %}"
+    };
+
+    /**
+     * Input parboiled fails on with something other than a ParseException (a null template or a
+     * ClassCastException), rejected by the direct engine with these messages instead.
+     */
+    private static final String[][] REJECTED_BY_DIRECT_ONLY = {
+            { "{% endif %}", "Unexpected input\nExplanation: Input position (line 1, pos 1):\n{% endif %}\n^\n\n" },
+            { "{% block a %}x{% endblock b %}", "Start statement and ending block names do not match\n" +
+                    "Explanation: Input position (line 1, pos 29):\n{% block a %}x{% endblock b %}\n" +
+                    "                            ^\n\n" }
+    };
+
+    private static final String[] RESOURCES = {
+            "templates/issue61/final.twig",
+            "templates/embed/empty.twig",
+            "templates/embed/fullOverride.twig",
+            "templates/embed/partialOverride.twig",
+            "templates/embed/nestedOverride.twig"
+    };
+
+    @Test
+    public void directParserRendersLikeParboiled() throws Exception {
+        for (String template : TEMPLATES)
+            assertSameOutput(template, new StringJtwigResource(template), new JtwigConfiguration());
+    }
+
+    @Test
+    public void directParserRendersResourcesLikeParboiled() throws Exception {
+        for (String resource : RESOURCES)
+            assertSameOutput(resource, new ClasspathJtwigResource(resource), new JtwigConfiguration());
+    }
+
+    @Test
+    public void directParserHonoursCustomDelimiters() throws Exception {
+        JtwigConfiguration configuration = new JtwigConfiguration();
+        configuration.parse()
+                .withBeginCode("(&").withEndCode("&)")
+                .withBeginOutput("(>").withEndOutput("<)")
+                .withBeginComment("(#").withEndComment("#)");
+
+        String template = "(& if (true) &)Hello (> name <)(# ignored #)(& endif &) {{ name }}";
+        assertSameOutput(template, new StringJtwigResource(template), configuration);
+    }
+
+    @Test
+    public void directParserRejectsWhatParboiledRejects() throws Exception {
+        for (String template : INVALID) {
+            for (ParserEngine engine : ParserEngine.values()) {
+                JtwigConfiguration configuration = new JtwigConfiguration();
+                configuration.parse().withEngine(engine);
+                Throwable error = null;
+                try {
+                    render(new StringJtwigResource(template), configuration);
+                } catch (ParseException e) {
+                    error = e;
+                }
+                assertThat(engine + " " + template, error, instanceOf(ParseException.class));
+            }
+            assertSameOutput(template, new StringJtwigResource(template), new JtwigConfiguration());
+        }
+    }
+
+    @Test
+    public void directParserRejectsWhatParboiledCannotHandle() throws Exception {
+        for (String[] rejected : REJECTED_BY_DIRECT_ONLY) {
+            JtwigConfiguration configuration = new JtwigConfiguration();
+            configuration.parse().withEngine(ParserEngine.DIRECT);
+            assertThat(rejected[0], outcome(new StringJtwigResource(rejected[0]), configuration),
+                    equalTo("ParseException: " + rejected[1]));
+        }
+    }
+
+    private void assertSameOutput(String description, JtwigResource resource, JtwigConfiguration configuration) {
+        configuration.parse().withEngine(ParserEngine.PARBOILED);
+        String expected = outcome(resource, configuration);
+        configuration.parse().withEngine(ParserEngine.DIRECT);
+        assertThat(description, outcome(resource, configuration), equalTo(expected));
+    }
+
+    private String outcome(JtwigResource resource, JtwigConfiguration configuration) {
+        try {
+            return render(resource, configuration);
+        } catch (Exception e) {
+            return e.getClass().getSimpleName() + ": " + e.getMessage();
+        }
+    }
+
+    private String render(JtwigResource resource, JtwigConfiguration configuration) throws Exception {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("a", 1);
+        map.put("b", "two");
+        JtwigModelMap model = new JtwigModelMap()
+                .add("name", "jtwig")
+                .add("nothing", null)
+                .add("key", "a")
+                .add("list", Arrays.asList(1, 2, 3))
+                .add("map", map);
+        return new JtwigTemplate(resource, configuration).output(new JtwigContext(model));
+    }
+}
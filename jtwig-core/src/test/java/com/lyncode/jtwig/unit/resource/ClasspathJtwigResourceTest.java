@@ -18,6 +18,7 @@ import com.lyncode.jtwig.resource.ClasspathJtwigResource;
 import org.junit.Test;
 
 import static junit.framework.TestCase.assertNotNull;
+import static junit.framework.TestCase.assertTrue;
 
 public class ClasspathJtwigResourceTest {
     private ClasspathJtwigResource underTest = new ClasspathJtwigResource("/templates/unit/sample.twig");
@@ -27,6 +28,11 @@ public class ClasspathJtwigResourceTest {
         assertNotNull(underTest.retrieve());
     }
 
+    @Test
+    public void testLastModified() throws Exception {
+        assertTrue(underTest.lastModified() != 0);
+    }
+
     @Test
     public void testResolve() throws Exception {
         assertNotNull(underTest.resolve("other.twig").retrieve());
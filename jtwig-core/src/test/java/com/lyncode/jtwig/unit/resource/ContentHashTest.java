@@ -0,0 +1,63 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.unit.resource;
+
+import com.lyncode.jtwig.resource.ContentHash;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.net.URL;
+import java.nio.file.Files;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNot.not;
+import static org.junit.Assert.assertThat;
+
+public class ContentHashTest {
+    @Test
+    public void sameContentSameHash() throws Exception {
+        assertThat(ContentHash.of(stream("hello")), is(ContentHash.of(stream("hello"))));
+    }
+
+    @Test
+    public void differentContentDifferentHash() throws Exception {
+        assertThat(ContentHash.of(stream("hello")), not(is(ContentHash.of(stream("world")))));
+    }
+
+    @Test
+    public void missingContent() throws Exception {
+        assertThat(ContentHash.of(null), is(0L));
+    }
+
+    @Test
+    public void cachedHashIsReusedWithinCheckInterval() throws Exception {
+        File file = File.createTempFile("jtwig", ".twig");
+        file.deleteOnExit();
+        URL url = file.toURI().toURL();
+        ContentHash.Cached cached = new ContentHash.Cached(60000);
+
+        Files.write(file.toPath(), "hello".getBytes());
+        long first = cached.of(url);
+        Files.write(file.toPath(), "world".getBytes());
+
+        assertThat(cached.of(url), is(first));
+        assertThat(new ContentHash.Cached(0).of(url), not(is(first)));
+    }
+
+    private ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes());
+    }
+}
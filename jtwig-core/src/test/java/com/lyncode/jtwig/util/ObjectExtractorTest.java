@@ -14,8 +14,12 @@
 
 package com.lyncode.jtwig.util;
 
+import com.lyncode.jtwig.types.Undefined;
 import org.junit.Test;
 
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -25,6 +29,7 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 public class ObjectExtractorTest {
     @Test
@@ -54,6 +59,85 @@ public class ObjectExtractorTest {
         assertEquals("b", underTest.extract("b"));
     }
 
+    @Test
+    public void shouldUseGetterWhenFieldIsPrivate () throws ObjectExtractor.ExtractException {
+        assertEquals("first", new ObjectExtractor(new C("first")).extract("value"));
+        assertEquals("second", new ObjectExtractor(new C("second")).extract("value"));
+    }
+
+    @Test
+    public void cachedLookupIsPerClass () throws ObjectExtractor.ExtractException {
+        Map<String, Object> map = new HashMap<String, Object>();
+        map.put("value", "fromMap");
+
+        assertEquals("first", new ObjectExtractor(new C("first")).extract("value"));
+        assertEquals("fromMap", new ObjectExtractor(map).extract("value"));
+    }
+
+    @Test
+    public void missingPropertyStaysMissing () throws ObjectExtractor.ExtractException {
+        assertEquals(Undefined.UNDEFINED, new ObjectExtractor(new C("first")).extract("unknown"));
+        assertEquals(Undefined.UNDEFINED, new ObjectExtractor(new C("second")).extract("unknown"));
+    }
+
+    @Test
+    public void sameNameWithArgumentsResolvesSeparately () throws ObjectExtractor.ExtractException {
+        C c = new C("first");
+
+        assertEquals("first", new ObjectExtractor(c).extract("value"));
+        assertEquals("first!", new ObjectExtractor(c).extract("value", "!"));
+    }
+
+    @Test(expected = ObjectExtractor.ExtractException.class)
+    public void failingGetterIsReported () throws ObjectExtractor.ExtractException {
+        new ObjectExtractor(new C(null)).extract("length");
+    }
+
+    @Test
+    public void shouldExtractStaticField () throws ObjectExtractor.ExtractException {
+        assertEquals("static", new ObjectExtractor(new D()).extract("name"));
+    }
+
+    @Test
+    public void shouldExtractFromStaticGetter () throws ObjectExtractor.ExtractException {
+        assertEquals("foo", new ObjectExtractor(new D()).extract("foo"));
+    }
+
+    @Test
+    public void lookupDoesNotKeepClassLoaderAlive () throws Exception {
+        URL classes = D.class.getProtectionDomain().getCodeSource().getLocation();
+        URLClassLoader loader = new URLClassLoader(new URL[]{classes}, null);
+        assertEquals("foo", new ObjectExtractor(loader.loadClass(D.class.getName()).newInstance()).extract("foo"));
+        WeakReference<ClassLoader> reference = new WeakReference<ClassLoader>(loader);
+        loader = null;
+
+        for (int i = 0; i < 50 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(reference.get());
+    }
+
+    public static class C {
+        private final String value;
+
+        public C(String value) {
+            this.value = value;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public String getValue(String suffix) {
+            return value + suffix;
+        }
+
+        public int getLength() {
+            return value.length();
+        }
+    }
+
     public static class A {
         public String a;
     }
@@ -61,4 +145,12 @@ public class ObjectExtractorTest {
     public static class B extends A {
         public String b;
     }
+
+    public static class D {
+        public static String NAME = "static";
+
+        public static String getFoo() {
+            return "foo";
+        }
+    }
 }
@@ -25,4 +25,10 @@ import static java.lang.annotation.RetentionPolicy.RUNTIME;
 public @interface JtwigFunction {
     String name();
     String[] aliases() default "";
+
+    /**
+     * Pure functions have no side effects and their result depends only on the arguments,
+     * so calls with constant arguments may be evaluated once, when the template is compiled.
+     */
+    boolean pure() default false;
 }
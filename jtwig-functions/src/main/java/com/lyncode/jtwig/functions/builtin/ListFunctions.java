@@ -25,7 +25,7 @@ import java.util.*;
 import static java.lang.Math.min;
 
 public class ListFunctions {
-    @JtwigFunction(name = "batch")
+    @JtwigFunction(name = "batch", pure = true)
     public List<List<Object>> batch (@Parameter Object input, @Parameter int groupSize) {
         ObjectIterator iterator = new ObjectIterator(input);
         List<List<Object>> result = new ArrayList<>();
@@ -40,7 +40,7 @@ public class ListFunctions {
         return result;
     }
 
-    @JtwigFunction(name = "batch")
+    @JtwigFunction(name = "batch", pure = true)
     public List<List<Object>> batch (@Parameter Object input, @Parameter int groupSize, @Parameter Object padding) {
         ObjectIterator iterator = new ObjectIterator(input);
         List<List<Object>> result = new ArrayList<>();
@@ -57,7 +57,7 @@ public class ListFunctions {
         return result;
     }
 
-    @JtwigFunction(name = "concat", aliases = { "concatenate" })
+    @JtwigFunction(name = "concat", aliases = { "concatenate" }, pure = true)
     public String concatenate (@Parameter String... pieces) {
         StringBuilder builder = new StringBuilder();
         for (String piece : pieces) {
@@ -68,7 +68,7 @@ public class ListFunctions {
         return builder.toString();
     }
 
-    @JtwigFunction(name = "join")
+    @JtwigFunction(name = "join", pure = true)
     public String join (@Parameter Object input, @Parameter String separator) {
         List<String> pieces = new ArrayList<>();
         ObjectIterator iterator = new ObjectIterator(input);
@@ -82,12 +82,12 @@ public class ListFunctions {
         return StringUtils.join(pieces, separator);
     }
 
-    @JtwigFunction(name = "join")
+    @JtwigFunction(name = "join", pure = true)
     public String join (@Parameter Object input) {
         return join(input, "");
     }
 
-    @JtwigFunction(name = "merge")
+    @JtwigFunction(name = "merge", pure = true)
     public Object merge (@Parameter Object first, @Parameter Object... rest) {
         if (first instanceof Iterable)
             return mergeList(first, rest);
@@ -97,7 +97,7 @@ public class ListFunctions {
             return mergeArray(first, rest);
     }
 
-    @JtwigFunction(name = "length")
+    @JtwigFunction(name = "length", pure = true)
     public int length (@Parameter Iterable input) {
         Iterator iterator = input.iterator();
         int count = 0;
@@ -108,19 +108,19 @@ public class ListFunctions {
         return count;
     }
 
-    @JtwigFunction(name = "first")
+    @JtwigFunction(name = "first", pure = true)
     public Object first (@Parameter List input) {
         if (input.isEmpty()) return null;
         return input.get(0);
     }
 
-    @JtwigFunction(name = "last")
+    @JtwigFunction(name = "last", pure = true)
     public Object last (@Parameter List input) {
         if (input.isEmpty()) return null;
         return input.get(input.size() - 1);
     }
 
-    @JtwigFunction(name = "reverse")
+    @JtwigFunction(name = "reverse", pure = true)
     public List reverse (@Parameter Object input) {
         ObjectIterator objectIterator = new ObjectIterator(input);
         List<Object> result = new ArrayList<Object>();
@@ -131,7 +131,7 @@ public class ListFunctions {
         return result;
     }
 
-    @JtwigFunction(name = "slice")
+    @JtwigFunction(name = "slice", pure = true)
     public Object slice(@Parameter Object input, @Parameter int begin, @Parameter int length) throws FunctionException {
 
         if (input instanceof String) {
@@ -157,10 +157,11 @@ public class ListFunctions {
             return list.toArray();
     }
 
-    @JtwigFunction(name = "sort")
+    @JtwigFunction(name = "sort", pure = true)
     public List sort (@Parameter List input) {
-        Collections.sort(input);
-        return input;
+        List result = new ArrayList(input);
+        Collections.sort(result);
+        return result;
     }
 
     private Object mergeArray(Object first, Object... arguments) {
@@ -18,23 +18,23 @@ import com.lyncode.jtwig.functions.annotations.JtwigFunction;
 import com.lyncode.jtwig.functions.annotations.Parameter;
 
 public class MathFunctions {
-    @JtwigFunction(name = "abs")
+    @JtwigFunction(name = "abs", pure = true)
     public Double abs (@Parameter Double input) {
         return Math.abs(input);
     }
-    @JtwigFunction(name = "abs")
+    @JtwigFunction(name = "abs", pure = true)
     public Float abs (@Parameter Float input) {
         return Math.abs(input);
     }
-    @JtwigFunction(name = "abs")
+    @JtwigFunction(name = "abs", pure = true)
     public Long abs (@Parameter Long input) {
         return Math.abs(input);
     }
-    @JtwigFunction(name = "abs")
+    @JtwigFunction(name = "abs", pure = true)
     public Integer abs (@Parameter Integer input) {
         return Math.abs(input);
     }
-    @JtwigFunction(name = "round")
+    @JtwigFunction(name = "round", pure = true)
     public int round (@Parameter Double input, @Parameter String strategy) {
         switch (RoundStrategy.valueOf(strategy.toUpperCase())) {
             case CEIL:
@@ -45,7 +45,7 @@ public class MathFunctions {
                 return (int) Math.round(input);
         }
     }
-    @JtwigFunction(name = "round")
+    @JtwigFunction(name = "round", pure = true)
     public int round (@Parameter Double input) {
         return round(input, RoundStrategy.COMMON.name());
     }
@@ -24,7 +24,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class NumberFunctions {
-    @JtwigFunction(name = "number_format")
+    @JtwigFunction(name = "number_format", pure = true)
     public String numberFormat (@Parameter Object number, @Parameter Integer fractionDigits, @Parameter String decimalSeparator, @Parameter String groupingSeparator) {
         DecimalFormat numberFormat = new DecimalFormat();
         DecimalFormatSymbols decimalFormatSymbols = numberFormat.getDecimalFormatSymbols();
@@ -50,22 +50,22 @@ public class NumberFunctions {
         return numberFormat.format(number);
     }
 
-    @JtwigFunction(name = "number_format")
+    @JtwigFunction(name = "number_format", pure = true)
     public String numberFormat (@Parameter Object number, @Parameter Integer fractionDigits, @Parameter String decimalSeparator) {
         return numberFormat(number, fractionDigits, decimalSeparator, null);
     }
 
-    @JtwigFunction(name = "number_format")
+    @JtwigFunction(name = "number_format", pure = true)
     public String numberFormat (@Parameter Object number, @Parameter Integer fractionDigits) {
         return numberFormat(number, fractionDigits, null, null);
     }
 
-    @JtwigFunction(name = "number_format")
+    @JtwigFunction(name = "number_format", pure = true)
     public String numberFormat (@Parameter Object number) {
         return numberFormat(number, null, null, null);
     }
 
-    @JtwigFunction(name = "range")
+    @JtwigFunction(name = "range", pure = true)
     public List<Integer> range (@Parameter int start, @Parameter int end, @Parameter int step) throws FunctionException {
         List<Integer> result = new ArrayList<>();
 
@@ -89,7 +89,7 @@ public class NumberFunctions {
 
         return result;
     }
-    @JtwigFunction(name = "range")
+    @JtwigFunction(name = "range", pure = true)
     public List<Integer> range (@Parameter int start, @Parameter int end) throws FunctionException {
         return range(start, end, 1);
     }
@@ -33,7 +33,7 @@ import static java.nio.charset.Charset.forName;
 import static java.util.Arrays.asList;
 
 public class StringFunctions {
-    @JtwigFunction(name = "capitalize")
+    @JtwigFunction(name = "capitalize", pure = true)
     public String capitalize (@Parameter String input) {
         if (input.length() > 0)
             return input.substring(0, 1).toUpperCase() + input.substring(1);
@@ -41,17 +41,17 @@ public class StringFunctions {
             return input;
     }
 
-    @JtwigFunction(name = "convert_encoding")
+    @JtwigFunction(name = "convert_encoding", pure = true)
     public String capitalize (@Parameter String input, @Parameter String from, @Parameter String to) {
         return new String(input.getBytes(forName(from)), forName(to));
     }
 
-    @JtwigFunction(name = "escape", aliases = {"e"})
+    @JtwigFunction(name = "escape", aliases = {"e"}, pure = true)
     public String escape (@Parameter String input) throws FunctionException {
         return escape(input, EscapeStrategy.HTML.name());
     }
 
-    @JtwigFunction(name = "escape", aliases = {"e"})
+    @JtwigFunction(name = "escape", aliases = {"e"}, pure = true)
     public String escape (@Parameter String input, @Parameter String strategy) throws FunctionException {
         switch (EscapeStrategy.strategyByName(strategy.toLowerCase())) {
             case HTML:
@@ -66,22 +66,22 @@ public class StringFunctions {
     }
 
 
-    @JtwigFunction(name = "format")
+    @JtwigFunction(name = "format", pure = true)
     public String format (@Parameter String input, @Parameter Object... arguments) {
         return String.format(input, arguments);
     }
 
-    @JtwigFunction(name = "lower")
+    @JtwigFunction(name = "lower", pure = true)
     public String lower (@Parameter String input) {
         return input.toLowerCase();
     }
 
-    @JtwigFunction(name = "nl2br")
+    @JtwigFunction(name = "nl2br", pure = true)
     public String nl2br (@Parameter String input) {
         return input.replace("\n", "<br />");
     }
 
-    @JtwigFunction(name = "replace")
+    @JtwigFunction(name = "replace", pure = true)
     public String replace (@Parameter String input, @Parameter Map<String, Object> replacements) {
         for (String key : replacements.keySet())
             if (replacements.get(key) != null)
@@ -89,42 +89,42 @@ public class StringFunctions {
         return input;
     }
 
-    @JtwigFunction(name = "split")
+    @JtwigFunction(name = "split", pure = true)
     public List<String> split (@Parameter String input, @Parameter String separator) {
         return asList(input.split(separator));
     }
 
-    @JtwigFunction(name = "striptags")
+    @JtwigFunction(name = "striptags", pure = true)
     public String stripTags (@Parameter String input) {
         return stripTags(input, "");
     }
 
-    @JtwigFunction(name = "striptags")
+    @JtwigFunction(name = "striptags", pure = true)
     public String stripTags (@Parameter String input, @Parameter String allowedTags) {
         return HtmlUtils.stripTags(input, allowedTags);
     }
 
 
-    @JtwigFunction(name = "title")
+    @JtwigFunction(name = "title", pure = true)
     public String title (@Parameter String input) {
         return WordUtils.capitalize(input);
     }
 
-    @JtwigFunction(name = "trim")
+    @JtwigFunction(name = "trim", pure = true)
     public String trim (@Parameter String input) {
         return (input == null) ? null : input.trim();
     }
 
-    @JtwigFunction(name = "upper")
+    @JtwigFunction(name = "upper", pure = true)
     public String upper (@Parameter String input) {
         return input.toUpperCase();
     }
 
-    @JtwigFunction(name = "url_encode")
+    @JtwigFunction(name = "url_encode", pure = true)
     public String urlEncode (@Parameter String input) throws UnsupportedEncodingException {
         return URLEncoder.encode(input, Charset.defaultCharset().displayName());
     }
-    @JtwigFunction(name = "url_encode")
+    @JtwigFunction(name = "url_encode", pure = true)
     public String urlEncode (@Parameter Map input) throws UnsupportedEncodingException {
         List<String> pieces = new ArrayList<String>();
         for (Object key : input.keySet()) {
@@ -133,17 +133,17 @@ public class StringFunctions {
         return StringUtils.join(pieces, "&");
     }
 
-    @JtwigFunction(name = "first")
+    @JtwigFunction(name = "first", pure = true)
     public Character first (@Parameter String input) {
         if (input.isEmpty()) return null;
         return input.charAt(0);
     }
-    @JtwigFunction(name = "last")
+    @JtwigFunction(name = "last", pure = true)
     public Character last (@Parameter String input) {
         if (input.isEmpty()) return null;
         return input.charAt(input.length() - 1);
     }
-    @JtwigFunction(name = "reverse")
+    @JtwigFunction(name = "reverse", pure = true)
     public String reverse (@Parameter String input) {
         return new StringBuilder(input).reverse().toString();
     }
@@ -25,6 +25,10 @@ public class CallableFunction {
         this.arguments = arguments;
     }
 
+    public boolean isPure () {
+        return reference.isPure();
+    }
+
     public Object execute () throws InvocationTargetException, IllegalAccessException {
         return reference.execute(arguments);
     }
@@ -0,0 +1,95 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.functions.repository;
+
+import org.apache.commons.lang3.ClassUtils;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+
+/**
+ * Result of binding a function name to a list of exact argument types.
+ * When bound, arguments of those exact types can be passed straight to the
+ * selected overload, skipping overload search and parameter resolution.
+ */
+public class FunctionBinding {
+    public static FunctionBinding unbound(FunctionResolver resolver, int stamp) {
+        return new FunctionBinding(resolver, stamp, null, null, -1);
+    }
+
+    private final FunctionResolver resolver;
+    private final int stamp;
+    private final FunctionReference reference;
+    private final Class<?>[] types;
+    private final int varArgPosition;
+
+    FunctionBinding(FunctionResolver resolver, int stamp, FunctionReference reference, Class<?>[] types, int varArgPosition) {
+        this.resolver = resolver;
+        this.stamp = stamp;
+        this.reference = reference;
+        this.types = types;
+        this.varArgPosition = varArgPosition;
+    }
+
+    public boolean isBound() {
+        return reference != null;
+    }
+
+    public boolean isCurrent(FunctionResolver resolver) {
+        return this.resolver == resolver && resolver.stamp() == stamp;
+    }
+
+    public boolean accepts(Object[] arguments) {
+        if (reference == null || arguments.length != types.length)
+            return false;
+        for (int i = 0; i < arguments.length; i++) {
+            if (arguments[i] == null || arguments[i].getClass() != types[i])
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Exact class of the values returned by the bound function, or null when
+     * it can only be known at render time.
+     */
+    public Class<?> returnType() {
+        if (reference == null)
+            return null;
+        Class<?> type = reference.getMethod().getReturnType();
+        if (type.isPrimitive())
+            return type == void.class ? null : ClassUtils.primitiveToWrapper(type);
+        if (type.isArray() || !Modifier.isFinal(type.getModifiers()))
+            return null;
+        return type;
+    }
+
+    public Object execute(Object[] arguments) throws InvocationTargetException, IllegalAccessException {
+        if (varArgPosition < 0)
+            return reference.execute(arguments);
+
+        Object[] parameters = new Object[varArgPosition + 1];
+        System.arraycopy(arguments, 0, parameters, 0, varArgPosition);
+        int extra = arguments.length - varArgPosition;
+        if (extra > 0) {
+            Class<?> componentType = reference.getMethod().getParameterTypes()[varArgPosition].getComponentType();
+            Object[] array = (Object[]) Array.newInstance(componentType, extra);
+            System.arraycopy(arguments, varArgPosition, array, 0, extra);
+            parameters[varArgPosition] = array;
+        }
+        return reference.execute(parameters);
+    }
+}
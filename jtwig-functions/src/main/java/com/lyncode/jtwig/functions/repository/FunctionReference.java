@@ -14,6 +14,7 @@
 
 package com.lyncode.jtwig.functions.repository;
 
+import com.lyncode.jtwig.functions.annotations.JtwigFunction;
 import com.lyncode.jtwig.functions.parameters.resolve.model.MethodInformation;
 
 import java.lang.annotation.Annotation;
@@ -85,6 +86,11 @@ public class FunctionReference implements Comparable<FunctionReference> {
         return method.hashCode();
     }
 
+    public boolean isPure() {
+        JtwigFunction annotation = method.getAnnotation(JtwigFunction.class);
+        return annotation != null && annotation.pure();
+    }
+
     public Method getMethod() {
         return method;
     }
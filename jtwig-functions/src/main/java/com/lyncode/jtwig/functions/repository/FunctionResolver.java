@@ -30,17 +30,24 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class FunctionResolver {
-    private final Map<String, Map<Class[], Pair<FunctionReference,  Boolean>>> cachedFunctions = new HashMap<>();
-    private final Map<String, List<FunctionReference>> functions = new HashMap<>();
+    private final ConcurrentMap<String, ConcurrentMap<List<Class<?>>, Pair<FunctionReference,  Boolean>>> cachedFunctions = new ConcurrentHashMap<>();
+    private final Map<String, List<FunctionReference>> functions = new ConcurrentHashMap<>();
     private final CompiledParameterResolver parameterResolver = new CompiledParameterResolver();
     private final CompiledParameterConverter parameterConverter = new CompiledParameterConverter();
+    private final AtomicInteger stamp = new AtomicInteger();
+    private volatile boolean customResolvers = false;
 
     public FunctionResolver() {
         store(new StringFunctions());
@@ -54,36 +61,103 @@ public class FunctionResolver {
     }
 
     public CallableFunction get(String name, GivenParameters givenParameters) throws FunctionNotFoundException, ResolveException {
-        if (!functions.containsKey(name))
+        List<FunctionReference> functionList = functions.get(name);
+        if (functionList == null)
             throw new FunctionNotFoundException("Function with name '"+name+"' not found.");
-        if (!cachedFunctions.containsKey(name))
-            cachedFunctions.put(name, new HashMap<Class[], Pair<FunctionReference,  Boolean>>());
 
-        if (cachedFunctions.get(name).containsKey(givenParameters.types())) {
-            Pair<FunctionReference, Boolean> pair = cachedFunctions.get(name).get(givenParameters.types());
+        ConcurrentMap<List<Class<?>>, Pair<FunctionReference, Boolean>> cache = cachedFunctions(name);
+        List<Class<?>> types = Arrays.asList(givenParameters.types());
+        Pair<FunctionReference, Boolean> pair = cache.get(types);
+        if (pair != null) {
             Object[] arguments = pair.getRight()
                     ? parameterResolver.resolveParameters(pair.getLeft(), givenParameters, parameterConverter)
                     : parameterResolver.resolveParameters(pair.getLeft(), givenParameters, emptyConverter());
-            return new CallableFunction(pair.getLeft(), arguments);
+            if (arguments != null)
+                return new CallableFunction(pair.getLeft(), arguments);
         }
-        List<FunctionReference> functionList = functions.get(name);
+
         for (FunctionReference function : functionList) {
             Object[] arguments = parameterResolver.resolveParameters(function, givenParameters, emptyConverter());
             if (arguments != null) {
-                cachedFunctions.get(name).put(givenParameters.types(), new ImmutablePair<>(function, false));
+                cache.put(types, new ImmutablePair<>(function, false));
                 return new CallableFunction(function, arguments);
             }
         }
         for (FunctionReference function : functionList) {
             Object[] arguments = parameterResolver.resolveParameters(function, givenParameters, parameterConverter);
             if (arguments != null) {
-                cachedFunctions.get(name).put(givenParameters.types(), new ImmutablePair<>(function, true));
+                cache.put(types, new ImmutablePair<>(function, true));
                 return new CallableFunction(function, arguments);
             }
         }
 
 
-        throw new FunctionNotFoundException("Function with name '"+name+"' and given parameters not found. Available:\n"+listAvailable(name, functions.get(name)));
+        throw new FunctionNotFoundException("Function with name '"+name+"' and given parameters not found. Available:\n"+listAvailable(name, functionList));
+    }
+
+    /**
+     * Selects, ahead of any call, the overload {@link #get(String, GivenParameters)} would pick
+     * for arguments of exactly the given types. Only overloads taking plain {@link Parameter}
+     * arguments without conversion can be decided this way, otherwise the result is unbound
+     * and callers must go through {@link #get(String, GivenParameters)}.
+     */
+    public FunctionBinding bind(String name, Class<?>... types) {
+        int currentStamp = stamp.get();
+        List<FunctionReference> functionList = functions.get(name);
+        if (functionList == null || Arrays.asList(types).contains(null))
+            return FunctionBinding.unbound(this, currentStamp);
+
+        for (FunctionReference function : functionList) {
+            Method method = function.getMethod();
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            int varArgPosition = parameterTypes.length > 0 && parameterTypes[parameterTypes.length - 1].isArray()
+                    ? parameterTypes.length - 1 : -1;
+            if (!onlyParameterAnnotations(method))
+                return FunctionBinding.unbound(this, currentStamp);
+            if (varArgPosition < 0 ? parameterTypes.length != types.length : varArgPosition >= types.length)
+                continue;
+            if (varArgPosition >= 0 && parameterTypes[varArgPosition].getComponentType().isPrimitive())
+                return FunctionBinding.unbound(this, currentStamp);
+
+            boolean assignable = true;
+            for (int i = 0; i < types.length && assignable; i++) {
+                Class<?> parameterType = varArgPosition >= 0 && i >= varArgPosition
+                        ? parameterTypes[varArgPosition].getComponentType()
+                        : parameterTypes[i];
+                assignable = parameterType.isAssignableFrom(types[i]);
+            }
+            if (assignable)
+                return new FunctionBinding(this, currentStamp, function, types.clone(), varArgPosition);
+            if (customResolvers)
+                return FunctionBinding.unbound(this, currentStamp);
+        }
+        return FunctionBinding.unbound(this, currentStamp);
+    }
+
+    int stamp() {
+        return stamp.get();
+    }
+
+    private static boolean onlyParameterAnnotations(Method method) {
+        for (Annotation[] annotations : method.getParameterAnnotations()) {
+            boolean found = false;
+            for (Annotation annotation : annotations) {
+                if (annotation.annotationType().equals(Parameter.class))
+                    found = true;
+            }
+            if (!found) return false;
+        }
+        return true;
+    }
+
+    private ConcurrentMap<List<Class<?>>, Pair<FunctionReference, Boolean>> cachedFunctions(String name) {
+        ConcurrentMap<List<Class<?>>, Pair<FunctionReference, Boolean>> cache = cachedFunctions.get(name);
+        if (cache == null) {
+            cache = new ConcurrentHashMap<>();
+            ConcurrentMap<List<Class<?>>, Pair<FunctionReference, Boolean>> existing = cachedFunctions.putIfAbsent(name, cache);
+            if (existing != null) cache = existing;
+        }
+        return cache;
     }
 
     private String listAvailable(String name, List<FunctionReference> functionReferences) {
@@ -102,20 +176,28 @@ public class FunctionResolver {
 
     public FunctionResolver add(Class<?> from, Class<?> to, ParameterConverter converter) {
         parameterConverter.add(from, to, converter);
+        cachedFunctions.clear();
+        stamp.incrementAndGet();
         return this;
     }
 
     public FunctionResolver add(AnnotatedMethodParameterResolver resolver) {
         parameterResolver.add(resolver);
+        customResolvers = true;
+        cachedFunctions.clear();
+        stamp.incrementAndGet();
         return this;
     }
 
     public FunctionResolver add(TypeMethodParameterResolver resolver) {
         parameterResolver.add(resolver);
+        customResolvers = true;
+        cachedFunctions.clear();
+        stamp.incrementAndGet();
         return this;
     }
 
-    public FunctionResolver store(Object instance) {
+    public synchronized FunctionResolver store(Object instance) {
         for (Method method : instance.getClass().getDeclaredMethods()) {
             JtwigFunction annotation = method.getAnnotation(JtwigFunction.class);
             if (annotation != null) {
@@ -126,13 +208,15 @@ public class FunctionResolver {
             }
 
         }
+        cachedFunctions.clear();
+        stamp.incrementAndGet();
         return this;
     }
 
     private void addFunction(Object instance, Method method, String name) {
-        if (!functions.containsKey(name))
-            functions.put(name, new ArrayList<FunctionReference>());
-        List<FunctionReference> list = functions.get(name);
+        List<FunctionReference> list = functions.containsKey(name)
+                ? new ArrayList<>(functions.get(name))
+                : new ArrayList<FunctionReference>();
         FunctionReference newFunction = new FunctionReference(method, instance);
         boolean added = false;
         for (int i = 0;i<list.size() && !added; i++) {
@@ -143,6 +227,7 @@ public class FunctionResolver {
         }
         if (!added)
             list.add(newFunction);
+        functions.put(name, Collections.unmodifiableList(list));
     }
 
     private static ParameterConverter emptyConverter() {
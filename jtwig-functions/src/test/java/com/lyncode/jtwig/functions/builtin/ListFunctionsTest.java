@@ -39,6 +39,15 @@ public class ListFunctionsTest {
     }
 
 
+    @Test
+    public void sortDoesNotChangeInput() throws Exception {
+        List<String> input = asList("b", "c", "a");
+        List result = underTest.sort(input);
+        assertEquals(asList("a", "b", "c"), result);
+        assertEquals(asList("b", "c", "a"), input);
+    }
+
+
     @Test
     public void first() throws Exception {
         assertEquals(underTest.first(asList(new String[]{"a", "b"})), "a");
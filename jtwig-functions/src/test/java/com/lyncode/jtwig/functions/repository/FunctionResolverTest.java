@@ -20,7 +20,10 @@ import com.lyncode.jtwig.functions.exceptions.FunctionNotFoundException;
 import com.lyncode.jtwig.functions.parameters.GivenParameters;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
 public class FunctionResolverTest {
@@ -50,6 +53,53 @@ public class FunctionResolverTest {
         underTest.get("test", parameters("one", "two")).execute();
     }
 
+    @Test
+    public void shouldResolveSameOverloadForSameTypes() throws Exception {
+        underTest.store(new TestClass());
+        CallableFunction first = underTest.get("test", parameters("hello"));
+        CallableFunction second = underTest.get("test", parameters("world"));
+
+        assertEquals("hello", first.execute());
+        assertEquals("world", second.execute());
+    }
+
+    @Test
+    public void shouldBindOverloadForExactTypes() throws Exception {
+        underTest.store(new TestClass());
+
+        FunctionBinding binding = underTest.bind("test", String.class);
+
+        assertTrue(binding.isBound());
+        assertTrue(binding.accepts(new Object[]{"hello"}));
+        assertFalse(binding.accepts(new Object[]{1}));
+        assertEquals("hello", binding.execute(new Object[]{"hello"}));
+        assertEquals(String.class, binding.returnType());
+    }
+
+    @Test
+    public void shouldNotBindWhenConversionIsNeeded() throws Exception {
+        assertFalse(underTest.bind("concat", Integer.class, Integer.class).isBound());
+        assertFalse(underTest.bind("test", String.class).isBound());
+    }
+
+    @Test
+    public void shouldPackVarArgsWhenBound() throws Exception {
+        FunctionBinding binding = underTest.bind("concat", String.class, String.class, String.class);
+
+        assertTrue(binding.isBound());
+        assertEquals("abc", binding.execute(new Object[]{"a", "b", "c"}));
+    }
+
+    @Test
+    public void bindingIsOutdatedAfterStore() throws Exception {
+        FunctionBinding binding = underTest.bind("concat", String.class, String.class);
+        assertTrue(binding.isCurrent(underTest));
+
+        underTest.store(new TestClass());
+
+        assertFalse(binding.isCurrent(underTest));
+    }
+
     private GivenParameters parameters(Object... parameters) {
         return new GivenParameters().add(parameters);
     }
@@ -16,15 +16,12 @@ package com.lyncode.jtwig.mvc;
 
 import com.lyncode.jtwig.JtwigContext;
 import com.lyncode.jtwig.JtwigModelMap;
-import com.lyncode.jtwig.JtwigTemplate;
 import com.lyncode.jtwig.beans.BeanResolver;
 import com.lyncode.jtwig.configuration.JtwigConfiguration;
 import com.lyncode.jtwig.content.api.Renderable;
 import com.lyncode.jtwig.exception.CompileException;
 import com.lyncode.jtwig.exception.ParseException;
-import com.lyncode.jtwig.parser.JtwigParser;
 import com.lyncode.jtwig.render.RenderContext;
-import com.lyncode.jtwig.resource.WebJtwigResource;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 import org.springframework.beans.BeansException;
@@ -36,15 +33,12 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.util.Collections;
 import java.util.Enumeration;
-import java.util.HashMap;
 import java.util.Map;
 
 public class JtwigView extends AbstractTemplateView {
 
     private static Logger log = LogManager.getLogger(JtwigView.class);
 
-    private Map<String, Renderable> compiledTemplates = new HashMap<>();
-
     protected String getEncoding() {
         return getViewResolver().getEncoding();
     }
@@ -100,22 +94,7 @@ public class JtwigView extends AbstractTemplateView {
     }
 
     public Renderable getContent(HttpServletRequest request) throws CompileException, ParseException {
-        if (getViewResolver().isCached()) {
-            if (!compiledTemplates.containsKey(getUrl())) {
-                compiledTemplates.put(getUrl(), getCompiledJtwigTemplate(request));
-            }
-            return compiledTemplates.get(getUrl());
-        }
-        return getCompiledJtwigTemplate(request);
-    }
-
-    private Renderable getCompiledJtwigTemplate(HttpServletRequest request) throws ParseException, CompileException {
-        return new JtwigTemplate(new WebJtwigResource(request.getSession().getServletContext(), getUrl()))
-                .compile(jtwigParser());
-    }
-
-    private JtwigParser jtwigParser() {
-        return new JtwigParser(getConfiguration().parse());
+        return getViewResolver().compiledTemplate(request.getSession().getServletContext(), getUrl());
     }
 
     @SuppressWarnings("serial")
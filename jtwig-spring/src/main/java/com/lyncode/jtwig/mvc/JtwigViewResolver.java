@@ -14,18 +14,34 @@
 
 package com.lyncode.jtwig.mvc;
 
+import com.google.common.cache.*;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.lyncode.jtwig.JtwigTemplate;
 import com.lyncode.jtwig.configuration.JtwigConfiguration;
+import com.lyncode.jtwig.content.api.Renderable;
+import com.lyncode.jtwig.exception.CompileException;
+import com.lyncode.jtwig.exception.ParseException;
 import com.lyncode.jtwig.functions.SpringFunctions;
 import com.lyncode.jtwig.functions.parameters.resolve.HttpRequestParameterResolver;
 import com.lyncode.jtwig.functions.parameters.resolve.api.AnnotatedMethodParameterResolver;
 import com.lyncode.jtwig.functions.parameters.resolve.api.TypeMethodParameterResolver;
 import com.lyncode.jtwig.functions.repository.FunctionResolver;
+import com.lyncode.jtwig.parser.JtwigParser;
+import com.lyncode.jtwig.resource.WebJtwigResource;
 import com.lyncode.jtwig.services.api.theme.ThemePrefixResolver;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.view.AbstractTemplateViewResolver;
 
+import javax.servlet.ServletContext;
 import java.io.File;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
 
 import static com.lyncode.jtwig.render.stream.RenderStream.withMaxThreads;
 import static com.lyncode.jtwig.render.stream.RenderStream.withMinThreads;
@@ -33,6 +49,8 @@ import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
 @Service
 public class JtwigViewResolver extends AbstractTemplateViewResolver {
+    private static Logger log = LogManager.getLogger(JtwigViewResolver.class);
+
     private static ThemePrefixResolver defaultPrefixResolver() {
         return new ThemePrefixResolver() {
             @Override
@@ -48,6 +66,14 @@ public class JtwigViewResolver extends AbstractTemplateViewResolver {
     private String encoding;
     private String theme;
     private boolean cached = true;
+    private boolean reloadOnChange = false;
+    private boolean warmUp = false;
+    private int warmUpThreads = Runtime.getRuntime().availableProcessors();
+
+    private long cacheMaximumSize = 1000;
+    private volatile Cache<String, Renderable> compiledTemplates = newCache();
+    private volatile Cache<String, JtwigTemplate> templates = newCache();
+    private JtwigParser parser;
 
     private JtwigConfiguration configuration = new JtwigConfiguration();
     private FunctionResolver functionRepository = new FunctionResolver();
@@ -58,6 +84,15 @@ public class JtwigViewResolver extends AbstractTemplateViewResolver {
         setContentType("text/html; charset=UTF-8");
 
         functionRepository.add(new HttpRequestParameterResolver());
+        configuration.compile().functionResolver(functionRepository);
+    }
+
+    @Override
+    protected void initServletContext(ServletContext servletContext) {
+        super.initServletContext(servletContext);
+        // spring functions are in place before any template is compiled
+        getFunctionResolver();
+        if (warmUp) warmUp(servletContext);
     }
 
     @Override
@@ -85,6 +120,10 @@ public class JtwigViewResolver extends AbstractTemplateViewResolver {
         return cached;
     }
 
+    public boolean isReloadOnChange() {
+        return reloadOnChange;
+    }
+
     public String getTheme() {
         return this.theme;
     }
@@ -97,6 +136,57 @@ public class JtwigViewResolver extends AbstractTemplateViewResolver {
         this.cached = cached;
     }
 
+    /**
+     * When caching, check each template source for changes and recompile only the ones that changed.
+     */
+    public void setReloadOnChange(boolean reloadOnChange) {
+        this.reloadOnChange = reloadOnChange;
+    }
+
+    /**
+     * When reloading on change, milliseconds a template is reused before its sources are checked again.
+     */
+    public void setReloadCheckInterval(long millis) {
+        configuration.compile().checkInterval(millis);
+    }
+
+    /**
+     * Compile every template under the prefix (and theme) while the application context starts,
+     * so no request pays for the first compilation. Requires caching.
+     */
+    public void setWarmUp(boolean warmUp) {
+        this.warmUp = warmUp;
+    }
+
+    public void setWarmUpThreads(int warmUpThreads) {
+        this.warmUpThreads = warmUpThreads;
+    }
+
+    /**
+     * Maximum number of compiled templates kept, least recently used ones are evicted first.
+     */
+    public void setCacheMaximumSize(long cacheMaximumSize) {
+        this.cacheMaximumSize = cacheMaximumSize;
+        this.compiledTemplates = newCache();
+        this.templates = newCache();
+        resetParser();
+    }
+
+    /**
+     * Statistics of the template cache in use, compiled templates or, when reloading on change, templates.
+     */
+    public CacheStats getCacheStats() {
+        return compiledTemplates.stats().plus(templates.stats());
+    }
+
+    @Override
+    public void clearCache() {
+        super.clearCache();
+        compiledTemplates.invalidateAll();
+        templates.invalidateAll();
+        resetParser();
+    }
+
     public void setTheme(String theme) {
         this.theme = theme;
     }
@@ -114,20 +204,135 @@ public class JtwigViewResolver extends AbstractTemplateViewResolver {
 
     public void setEncoding(String encoding) {
         this.encoding = encoding;
+        if (encoding != null) configuration.render().charset(Charset.forName(encoding));
     }
 
     JtwigConfiguration configuration() {
         return configuration;
     }
-    FunctionResolver getFunctionResolver() {
+    synchronized FunctionResolver getFunctionResolver() {
         if (functionResolver == null) {
             SpringFunctions springFunctions = new SpringFunctions();
             getApplicationContext().getAutowireCapableBeanFactory().autowireBean(springFunctions);
             functionRepository.store(springFunctions);
+            functionResolver = functionRepository;
         }
         return functionRepository;
     }
 
+    Renderable compiledTemplate(final ServletContext servletContext, final String url) throws CompileException, ParseException {
+        if (!isCached())
+            return newTemplate(servletContext, url).compile();
+        if (isReloadOnChange())
+            return template(servletContext, url).compile();
+
+        // concurrent first requests share a single compilation
+        return get(compiledTemplates, url, new Callable<Renderable>() {
+            @Override
+            public Renderable call() throws Exception {
+                return newTemplate(servletContext, url).compile();
+            }
+        });
+    }
+
+    private JtwigTemplate template(final ServletContext servletContext, final String url) throws CompileException, ParseException {
+        return get(templates, url, new Callable<JtwigTemplate>() {
+            @Override
+            public JtwigTemplate call() throws Exception {
+                return newTemplate(servletContext, url);
+            }
+        });
+    }
+
+    private static <T> T get(Cache<String, T> cache, String url, Callable<T> loader) throws CompileException, ParseException {
+        try {
+            return cache.get(url, loader);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof CompileException) throw (CompileException) cause;
+            if (cause instanceof ParseException) throw (ParseException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new CompileException(cause);
+        }
+    }
+
+    private <T> Cache<String, T> newCache() {
+        return CacheBuilder.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .recordStats()
+                .build();
+    }
+
+    private JtwigTemplate newTemplate(ServletContext servletContext, String url) {
+        return new JtwigTemplate(new WebJtwigResource(servletContext, url), configuration, parser());
+    }
+
+    private synchronized JtwigParser parser() {
+        if (parser == null)
+            parser = new JtwigParser(configuration.parse().withParsedCacheSize(cacheMaximumSize));
+        return parser;
+    }
+
+    private synchronized void resetParser() {
+        parser = null;
+    }
+
+    private void warmUp(final ServletContext servletContext) {
+        if (!isCached()) {
+            log.warn("Warm up skipped, template caching is disabled");
+            return;
+        }
+
+        List<String> urls = new ArrayList<>();
+        listTemplates(servletContext, getPrefix(), urls);
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, warmUpThreads));
+        List<Future<Long>> results = new ArrayList<>();
+        long start = System.currentTimeMillis();
+        try {
+            for (final String url : urls) {
+                results.add(executor.submit(new Callable<Long>() {
+                    @Override
+                    public Long call() throws Exception {
+                        long begin = System.currentTimeMillis();
+                        compiledTemplate(servletContext, url);
+                        return System.currentTimeMillis() - begin;
+                    }
+                }));
+            }
+
+            int failures = 0;
+            for (int i = 0; i < urls.size(); i++) {
+                try {
+                    long time = results.get(i).get();
+                    if (log.isDebugEnabled())
+                        log.debug("Compiled template [" + urls.get(i) + "] in " + time + "ms");
+                } catch (ExecutionException e) {
+                    failures++;
+                    log.error("Unable to compile template [" + urls.get(i) + "]", e.getCause());
+                }
+            }
+            log.info("Warm up compiled " + (urls.size() - failures) + " of " + urls.size()
+                    + " templates in " + (System.currentTimeMillis() - start) + "ms (" + failures + " failures)");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Warm up interrupted");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void listTemplates(ServletContext servletContext, String path, List<String> urls) {
+        Set<String> paths = servletContext.getResourcePaths(path);
+        if (paths == null) return;
+        for (String child : paths) {
+            if (child.endsWith("/"))
+                listTemplates(servletContext, child, urls);
+            else if (child.endsWith(getSuffix()))
+                urls.add(child);
+        }
+    }
+
     public JtwigViewResolver include (TypeMethodParameterResolver resolver) {
         functionRepository.add(resolver);
         return this;
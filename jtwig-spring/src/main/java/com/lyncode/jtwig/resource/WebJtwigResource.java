@@ -18,11 +18,14 @@ import com.lyncode.jtwig.exception.ResourceException;
 
 import javax.servlet.ServletContext;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.net.URL;
 
 public class WebJtwigResource implements JtwigResource {
     private ServletContext servletContext;
     private String url;
+    private final ContentHash.Cached contentHash = new ContentHash.Cached();
 
     public WebJtwigResource(ServletContext servletContext, String url) {
         this.servletContext = servletContext;
@@ -41,4 +44,36 @@ public class WebJtwigResource implements JtwigResource {
         String relativeUrl = new File(new File(url).getParent(), relativePath).getPath();
         return new WebJtwigResource(servletContext, relativeUrl);
     }
+
+    @Override
+    public long lastModified() throws ResourceException {
+        String realPath = servletContext.getRealPath(url);
+        if (realPath != null) return new File(realPath).lastModified();
+        try {
+            URL resource = servletContext.getResource(url);
+            if (resource == null) return 0;
+            long lastModified = resource.openConnection().getLastModified();
+            return lastModified != 0 ? lastModified : contentHash.of(resource);
+        } catch (IOException e) {
+            throw new ResourceException(e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        WebJtwigResource that = (WebJtwigResource) o;
+        return servletContext.equals(that.servletContext) && url.equals(that.url);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * servletContext.hashCode() + url.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return url;
+    }
 }
@@ -0,0 +1,145 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.lyncode.jtwig.unit.mvc;
+
+import com.lyncode.jtwig.mvc.JtwigViewResolver;
+import com.google.common.cache.CacheStats;
+import com.lyncode.jtwig.functions.annotations.JtwigFunction;
+import com.lyncode.jtwig.functions.annotations.Parameter;
+import org.junit.Test;
+import org.springframework.web.context.support.StaticWebApplicationContext;
+
+import javax.servlet.ServletContext;
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.*;
+
+public class JtwigViewResolverWarmUpTest {
+    private ServletContext servletContext = mock(ServletContext.class);
+
+    @Test
+    public void compilesAllTemplatesUnderPrefix() throws Exception {
+        when(servletContext.getResourcePaths("/views/"))
+                .thenReturn(new HashSet<>(Arrays.asList("/views/index.twig.html", "/views/other/", "/views/notes.txt")));
+        when(servletContext.getResourcePaths("/views/other/"))
+                .thenReturn(new HashSet<>(Arrays.asList("/views/other/page.twig.html")));
+        when(servletContext.getResourceAsStream("/views/index.twig.html"))
+                .thenReturn(new ByteArrayInputStream("index".getBytes()));
+        when(servletContext.getResourceAsStream("/views/other/page.twig.html"))
+                .thenReturn(new ByteArrayInputStream("page".getBytes()));
+
+        start(resolver(true));
+
+        verify(servletContext).getResourceAsStream("/views/index.twig.html");
+        verify(servletContext).getResourceAsStream("/views/other/page.twig.html");
+        verify(servletContext, never()).getResourceAsStream("/views/notes.txt");
+    }
+
+    @Test
+    public void failuresDoNotStopStartup() throws Exception {
+        when(servletContext.getResourcePaths("/views/"))
+                .thenReturn(new HashSet<>(Arrays.asList("/views/missing.twig.html")));
+
+        start(resolver(true));
+
+        verify(servletContext).getResourceAsStream("/views/missing.twig.html");
+    }
+
+    @Test
+    public void compiledTemplatesAreBoundedAndMeasured() throws Exception {
+        when(servletContext.getResourcePaths("/views/"))
+                .thenReturn(new HashSet<>(Arrays.asList("/views/one.twig.html", "/views/two.twig.html")));
+        when(servletContext.getResourceAsStream("/views/one.twig.html"))
+                .thenReturn(new ByteArrayInputStream("one".getBytes()));
+        when(servletContext.getResourceAsStream("/views/two.twig.html"))
+                .thenReturn(new ByteArrayInputStream("two".getBytes()));
+
+        JtwigViewResolver resolver = resolver(true);
+        resolver.setCacheMaximumSize(1);
+        start(resolver);
+
+        CacheStats stats = resolver.getCacheStats();
+        assertThat(stats.missCount(), is(2L));
+        assertThat(stats.loadSuccessCount(), is(2L));
+        assertThat(stats.evictionCount(), is(1L));
+    }
+
+    @Test
+    public void reloadingTemplatesAreMeasured() throws Exception {
+        when(servletContext.getResourcePaths("/views/"))
+                .thenReturn(new HashSet<>(Arrays.asList("/views/one.twig.html")));
+        when(servletContext.getResourceAsStream("/views/one.twig.html"))
+                .thenReturn(new ByteArrayInputStream("one".getBytes()));
+
+        JtwigViewResolver resolver = resolver(true);
+        resolver.setReloadOnChange(true);
+        start(resolver);
+
+        CacheStats stats = resolver.getCacheStats();
+        assertThat(stats.missCount(), is(1L));
+        assertThat(stats.loadSuccessCount(), is(1L));
+    }
+
+    @Test
+    public void warmUpFoldsPureFunctions() throws Exception {
+        when(servletContext.getResourcePaths("/views/"))
+                .thenReturn(new HashSet<>(Arrays.asList("/views/one.twig.html")));
+        when(servletContext.getResourceAsStream("/views/one.twig.html"))
+                .thenReturn(new ByteArrayInputStream("{{ counted('a') }}".getBytes()));
+        Counter counter = new Counter();
+
+        JtwigViewResolver resolver = resolver(true);
+        resolver.includeFunctions(counter);
+        start(resolver);
+
+        assertThat(counter.calls.get(), is(1));
+    }
+
+    @Test
+    public void warmUpIsOptional() throws Exception {
+        start(resolver(false));
+
+        verify(servletContext, never()).getResourcePaths(anyString());
+    }
+
+    private JtwigViewResolver resolver(boolean warmUp) {
+        JtwigViewResolver resolver = new JtwigViewResolver();
+        resolver.setPrefix("/views/");
+        resolver.setSuffix(".twig.html");
+        resolver.setWarmUp(warmUp);
+        resolver.setWarmUpThreads(2);
+        return resolver;
+    }
+
+    private void start(JtwigViewResolver resolver) {
+        StaticWebApplicationContext applicationContext = new StaticWebApplicationContext();
+        applicationContext.setServletContext(servletContext);
+        resolver.setApplicationContext(applicationContext);
+    }
+
+    public static class Counter {
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @JtwigFunction(name = "counted", pure = true)
+        public int counted(@Parameter String input) {
+            return calls.incrementAndGet();
+        }
+    }
+}